@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Builds an application class data sharing (AppCDS) archive of the classes loaded until the first response.
+# Requires a JDK 11 or later at runtime. The application is started once with the properties of the environment,
+# so the database must be reachable, e.g.
+#   SPRING_PROFILES_ACTIVE=prod,fast-start scripts/cds-archive.sh
+# The archive is written to target/exploded/app.jsa and is used by scripts/startup-time.sh --cds, or by running:
+#   java -XX:SharedArchiveFile=target/exploded/app.jsa -cp <the class path of the dump> io.github.lzmz.meetups.MeetupApplication
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+explode
+CP=$(class_path)
+CLASS_LIST="$EXPLODED_DIR/classes.lst"
+ARCHIVE="$EXPLODED_DIR/app.jsa"
+
+java -XX:DumpLoadedClassList="$CLASS_LIST" -cp "$CP" ${JAVA_OPTS:-} "$MAIN_CLASS" > "$EXPLODED_DIR/training.log" 2>&1 &
+PID=$!
+echo "Training run answered after $(wait_for_first_response "$PID" "$(date +%s%N)") ms"
+stop "$PID"
+
+java -Xshare:dump -XX:SharedClassListFile="$CLASS_LIST" -XX:SharedArchiveFile="$ARCHIVE" -cp "$CP" > "$EXPLODED_DIR/dump.log" 2>&1
+echo "Archived $(wc -l < "$CLASS_LIST") classes to $ARCHIVE"
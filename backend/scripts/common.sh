@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Shared by the startup scripts. The application is run from the exploded jar, since the class data sharing
+# archive can't hold the classes of the nested jars of the executable one.
+
+BACKEND_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+EXPLODED_DIR="$BACKEND_DIR/target/exploded"
+MAIN_CLASS=io.github.lzmz.meetups.MeetupApplication
+HEALTH_URL="http://localhost:${SERVER_PORT:-8080}/api/actuator/health"
+
+# Explodes the executable jar built by `mvn package`, unless it was already exploded.
+explode() {
+    local jar
+    jar=$(ls "$BACKEND_DIR"/target/meetups-*.jar 2>/dev/null | head -n 1)
+
+    if [ -z "$jar" ]; then
+        echo "No executable jar found, run 'mvn package' first." >&2
+        exit 1
+    fi
+
+    if [ -f "$EXPLODED_DIR/app.jar" ] && [ "$EXPLODED_DIR/app.jar" -nt "$jar" ]; then
+        return
+    fi
+
+    rm -rf "$EXPLODED_DIR"
+    mkdir -p "$EXPLODED_DIR"
+    (cd "$EXPLODED_DIR" && jar xf "$jar")
+    # The archive only holds classes loaded from jars, so the application classes are jarred again.
+    jar cf "$EXPLODED_DIR/app.jar" -C "$EXPLODED_DIR/BOOT-INF/classes" .
+}
+
+# Prints the class path of the exploded application, which must be the same when the archive is dumped and used.
+class_path() {
+    local cp="$EXPLODED_DIR/app.jar"
+    local lib
+
+    for lib in $(ls "$EXPLODED_DIR"/BOOT-INF/lib/*.jar | sort); do
+        cp="$cp:$lib"
+    done
+
+    echo "$cp"
+}
+
+# Waits until the application answers the health endpoint, whatever the status, and prints the elapsed milliseconds.
+wait_for_first_response() {
+    local pid=$1
+    local start=$2
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$HEALTH_URL")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "The application exited before answering." >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+
+    echo $(( ($(date +%s%N) - start) / 1000000 ))
+}
+
+stop() {
+    kill "$1"
+    wait "$1" 2>/dev/null || true
+}
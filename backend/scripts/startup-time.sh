@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Measures the time from the launch of the JVM until the first response of the application, over several runs.
+# The properties are taken from the environment, so the same database and profiles must be used to compare changes:
+#   SPRING_PROFILES_ACTIVE=prod,fast-start scripts/startup-time.sh [--cds] [runs]
+# With --cds the archive built by scripts/cds-archive.sh is used.
+set -euo pipefail
+source "$(dirname "$0")/common.sh"
+
+SHARE_OPTS=""
+if [ "${1:-}" = "--cds" ]; then
+    SHARE_OPTS="-Xshare:on -XX:SharedArchiveFile=$EXPLODED_DIR/app.jsa"
+    shift
+fi
+RUNS=${1:-5}
+
+explode
+CP=$(class_path)
+TIMES=()
+
+for run in $(seq "$RUNS"); do
+    START=$(date +%s%N)
+    java $SHARE_OPTS -cp "$CP" ${JAVA_OPTS:-} "$MAIN_CLASS" > "$EXPLODED_DIR/run-$run.log" 2>&1 &
+    PID=$!
+    TIMES+=("$(wait_for_first_response "$PID" "$START")")
+    stop "$PID"
+    echo "Run $run: ${TIMES[-1]} ms ($(grep -o 'Started MeetupApplication in [0-9.]* seconds' "$EXPLODED_DIR/run-$run.log"))"
+done
+
+echo "Median: $(printf '%s\n' "${TIMES[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p") ms"
@@ -1,5 +1,6 @@
 package io.github.lzmz.meetups.config;
 
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
 import io.github.lzmz.meetups.config.properties.ApiProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,6 +28,8 @@ public class CorsConfig {
         corsConfiguration.addAllowedMethod(HttpMethod.PUT);
         corsConfiguration.addAllowedMethod(HttpMethod.DELETE);
         corsConfiguration.addAllowedMethod(HttpMethod.PATCH);
+        corsConfiguration.addExposedHeader(KeysetPagination.NEXT_CURSOR_HEADER);
+        corsConfiguration.addExposedHeader(KeysetPagination.TOTAL_COUNT_HEADER);
         source.registerCorsConfiguration("/**", corsConfiguration.applyPermitDefaultValues());
         return source;
     }
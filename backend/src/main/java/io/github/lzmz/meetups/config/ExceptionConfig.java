@@ -0,0 +1,28 @@
+package io.github.lzmz.meetups.config;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.exceptions.CustomException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Applies {@code api.exceptions.stack-traces} to the custom exceptions.
+ * <p>Nothing depends on this configuration, so it's never initialized lazily, or the setting would be ignored
+ * when the lazy initialization is enabled.</p>
+ */
+@Configuration
+@Lazy(false)
+public class ExceptionConfig implements InitializingBean {
+
+    private final ApiProperties apiProperties;
+
+    public ExceptionConfig(ApiProperties apiProperties) {
+        this.apiProperties = apiProperties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        CustomException.setStackTraces(apiProperties.getExceptions().isStackTraces());
+    }
+}
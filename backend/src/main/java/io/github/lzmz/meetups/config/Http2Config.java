@@ -0,0 +1,48 @@
+package io.github.lzmz.meetups.config;
+
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.Ssl;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Enables HTTP/2 over cleartext (h2c) when {@code server.http2.enabled} is set and SSL isn't, since Spring Boot only
+ * adds the HTTP/2 protocol to connectors using SSL. TLS is expected to be terminated by the proxy in front of the API.
+ * <p>The compression settings of the connector don't apply to HTTP/2 streams, so they're copied to the protocol.</p>
+ */
+@Configuration
+public class Http2Config implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    private final ServerProperties serverProperties;
+
+    public Http2Config(ServerProperties serverProperties) {
+        this.serverProperties = serverProperties;
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        Ssl ssl = serverProperties.getSsl();
+
+        if (!serverProperties.getHttp2().isEnabled() || (ssl != null && ssl.isEnabled())) {
+            return;
+        }
+
+        factory.addConnectorCustomizers(connector -> connector.addUpgradeProtocol(http2Protocol(serverProperties.getCompression())));
+    }
+
+    private static Http2Protocol http2Protocol(Compression compression) {
+        Http2Protocol protocol = new Http2Protocol();
+
+        if (compression.getEnabled()) {
+            protocol.setCompression("on");
+            protocol.setCompressibleMimeType(StringUtils.arrayToCommaDelimitedString(compression.getMimeTypes()));
+            protocol.setCompressionMinSize((int) compression.getMinResponseSize().toBytes());
+        }
+
+        return protocol;
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.lzmz.meetups.config;
+
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serializes every field of the DTOs with sparse fieldsets unless the response sets its own filters.
+     */
+    @Bean
+    Jackson2ObjectMapperBuilderCustomizer fieldsetFiltersCustomizer() {
+        return builder -> builder.filters(Fieldsets.ALL);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.lzmz.meetups.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.github.lzmz.meetups.config.datasource.ReplicaRoutingDataSource;
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+/**
+ * Sends the read-only transactions to a replica when {@code api.replica.datasource.jdbc-url} is set.
+ * <p>The primary pool is still configured by the {@code spring.datasource} properties, and the replica pool by the
+ * Hikari properties under {@code api.replica.datasource}. The pools aren't beans themselves, since the initialization
+ * of any data source bean requires the data source of the application.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "api.replica.datasource", name = "jdbc-url")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig primaryPoolConfig(DataSourceProperties dataSourceProperties) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(dataSourceProperties.determineUrl());
+        config.setUsername(dataSourceProperties.determineUsername());
+        config.setPassword(dataSourceProperties.determinePassword());
+        config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        return config;
+    }
+
+    @Bean
+    @ConfigurationProperties("api.replica.datasource")
+    public HikariConfig replicaPoolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setReadOnly(true);
+        return config;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ApiProperties apiProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaRoutingDataSource(pool(primaryPoolConfig(dataSourceProperties), meterRegistry), pool(replicaPoolConfig(), meterRegistry), apiProperties.getReplica().getReadYourWritesWindow());
+    }
+
+    /**
+     * The target of a connection is chosen when the connection is fetched, so an entity manager that outlives a
+     * transaction must not hold its connection into the next one, or a read-write transaction may follow a read-only
+     * one on the replica.
+     *
+     * @return a customizer that makes Hibernate release the connection at the end of each transaction.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING, PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * The routing reads the read-only flag of the transaction synchronization, so the connections don't have to be
+     * prepared by Hibernate, which would otherwise reset a connection that it didn't prepare at the end of each
+     * read-only transaction, and warn about it.
+     *
+     * @return a post processor that stops the JPA dialect of Hibernate from preparing the connections.
+     */
+    @Bean
+    public static BeanPostProcessor unpreparedConnections() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HibernateJpaVendorAdapter) {
+                    ((HibernateJpaVendorAdapter) bean).setPrepareConnection(false);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * @param config        the configuration of the pool.
+     * @param meterRegistry the registry of the pool metrics, which are only bound by Spring Boot to data source beans.
+     * @return a pool that is started on its first connection.
+     */
+    private static HikariDataSource pool(HikariConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        config.copyStateTo(pool);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return pool;
+    }
+}
@@ -1,5 +1,8 @@
 package io.github.lzmz.meetups.config.cache;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 public final class WeatherCache {
 
     /**
@@ -13,4 +16,12 @@ public final class WeatherCache {
      */
     public static final String DAILY_FORECAST_EVICT_EXPRESSION = "0 0 0 * * *";
 
+    /**
+     * @return the time left until the next eviction of the daily forecast.
+     */
+    public static Duration timeToDailyForecastEviction() {
+        LocalDateTime now = LocalDateTime.now();
+        return Duration.between(now, now.toLocalDate().plusDays(1).atStartOfDay());
+    }
+
 }
@@ -0,0 +1,149 @@
+package io.github.lzmz.meetups.config.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes the connections of the read-only transactions to a replica, and all the others to the primary database.
+ * <p>The connection is fetched on the first statement instead of when the transaction begins, since the transaction
+ * is only known to be read-only by then.</p>
+ * <p>The replica lags behind the primary, so the read-only transactions of a user are kept on the primary for a
+ * while after the last read-write transaction of that user ends, and the user reads its own writes.</p>
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    /**
+     * Number of users kept on the primary from which the users whose window has passed are removed.
+     */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long readYourWritesWindow;
+    private final Map<String, Long> primaryDeadlines = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesWindow = readYourWritesWindow.toNanos();
+        setTargetDataSource(new Router());
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return the primary and the replica data sources.
+     */
+    public List<DataSource> getTargets() {
+        return Arrays.asList(primary, replica);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : getTargets()) {
+            if (target instanceof AutoCloseable) {
+                ((AutoCloseable) target).close();
+            }
+        }
+    }
+
+    private Target route() {
+        String user = currentUser();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (user != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                keepOnPrimaryAfterCompletion(user);
+            }
+
+            return Target.PRIMARY;
+        }
+
+        return user != null && isKeptOnPrimary(user) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    private void keepOnPrimaryAfterCompletion(String user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keepOnPrimary(user);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(int status) {
+                keepOnPrimary(user);
+            }
+        });
+    }
+
+    private void keepOnPrimary(String user) {
+        long now = System.nanoTime();
+
+        if (primaryDeadlines.size() > PURGE_THRESHOLD) {
+            primaryDeadlines.values().removeIf(deadline -> deadline - now <= 0);
+        }
+
+        primaryDeadlines.put(user, now + readYourWritesWindow);
+    }
+
+    private boolean isKeptOnPrimary(String user) {
+        Long deadline = primaryDeadlines.get(user);
+
+        if (deadline == null) {
+            return false;
+        }
+
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+
+        primaryDeadlines.remove(user, deadline);
+        return false;
+    }
+
+    /**
+     * @return the name of the authenticated user, or {@code null} if there's none.
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+
+        return authentication.getName();
+    }
+
+    private enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+
+        Router() {
+            Map<Object, Object> targets = new HashMap<>();
+            targets.put(Target.PRIMARY, primary);
+            targets.put(Target.REPLICA, replica);
+            setTargetDataSources(targets);
+            setDefaultTargetDataSource(primary);
+            afterPropertiesSet();
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+}
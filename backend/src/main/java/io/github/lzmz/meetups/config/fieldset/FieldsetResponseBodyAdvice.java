@@ -0,0 +1,39 @@
+package io.github.lzmz.meetups.config.fieldset;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+
+/**
+ * Serializes only the requested fields of the responses of the handlers that take a
+ * {@value Fieldsets#PARAMETER} request parameter.
+ */
+@ControllerAdvice
+public class FieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.getMethod() != null
+                && Arrays.stream(returnType.getMethod().getParameters())
+                .map(parameter -> parameter.getAnnotation(RequestParam.class))
+                .anyMatch(requestParam -> requestParam != null
+                        && (Fieldsets.PARAMETER.equals(requestParam.name()) || Fieldsets.PARAMETER.equals(requestParam.value())));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType, MethodParameter returnType,
+                                           ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            bodyContainer.setFilters(Fieldsets.filters(((ServletServerHttpRequest) request).getServletRequest().getParameter(Fieldsets.PARAMETER)));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.lzmz.meetups.config.fieldset;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets of the DTOs annotated with {@code @JsonFilter(Fieldsets.FILTER)}.
+ * <p>A client lists the fields it needs in the {@value #PARAMETER} request parameter, separated by commas.
+ * Only those fields are serialized, and the queries only read the columns and joins they need. The id is
+ * always included, since it's the cursor of the pages.</p>
+ */
+public final class Fieldsets {
+
+    /**
+     * Request parameter listing the requested fields.
+     */
+    public static final String PARAMETER = "fields";
+
+    /**
+     * Id of the Jackson filter of the DTOs with sparse fieldsets.
+     */
+    public static final String FILTER = "fieldset";
+
+    /**
+     * Field always included in a sparse fieldset.
+     */
+    public static final String ID = "id";
+
+    /**
+     * Filters that serialize every field, used when no fieldset is requested.
+     */
+    public static final FilterProvider ALL = new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    private Fieldsets() {
+    }
+
+    /**
+     * Parses the requested fields of the given DTO class.
+     *
+     * @param fields   the value of the {@value #PARAMETER} request parameter, or {@code null}.
+     * @param dtoClass the DTO class whose fields are requested.
+     * @return the requested fields along with the id, or {@code null} if every field is requested.
+     * @throws ValueNotAllowedException if one of the requested fields isn't a field of the DTO class.
+     */
+    public static Set<String> parse(String fields, Class<?> dtoClass) throws ValueNotAllowedException {
+        Set<String> parsed = split(fields);
+
+        if (parsed == null) {
+            return null;
+        }
+
+        for (String field : parsed) {
+            if (!isField(dtoClass, field)) {
+                throw new ValueNotAllowedException(PARAMETER, field, "it's not a field of the response");
+            }
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Retrieves the filters that only serialize the requested fields.
+     *
+     * @param fields the value of the {@value #PARAMETER} request parameter, or {@code null}.
+     * @return the filters of the requested fields.
+     */
+    public static FilterProvider filters(String fields) {
+        Set<String> parsed = split(fields);
+
+        if (parsed == null) {
+            return ALL;
+        }
+
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(parsed));
+    }
+
+    /**
+     * Checks whether the given field is included in the given fieldset.
+     *
+     * @param fields the parsed fieldset, or {@code null} if every field is requested.
+     * @param field  the field to check.
+     * @return {@code true} if the field is included.
+     */
+    public static boolean includes(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    private static Set<String> split(String fields) {
+        if (fields == null || fields.trim().isEmpty()) {
+            return null;
+        }
+
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add(ID);
+        Arrays.stream(fields.split(",")).map(String::trim).filter(field -> !field.isEmpty()).forEach(parsed::add);
+        return parsed;
+    }
+
+    private static boolean isField(Class<?> dtoClass, String name) {
+        try {
+            Field field = dtoClass.getDeclaredField(name);
+            return !Modifier.isStatic(field.getModifiers());
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+}
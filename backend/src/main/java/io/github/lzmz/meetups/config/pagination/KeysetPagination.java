@@ -0,0 +1,40 @@
+package io.github.lzmz.meetups.config.pagination;
+
+public final class KeysetPagination {
+
+    /**
+     * Page size used when none is requested.
+     */
+    public static final int DEFAULT_SIZE = 50;
+
+    /**
+     * {@link #DEFAULT_SIZE} as a request parameter default value.
+     */
+    public static final String DEFAULT_SIZE_VALUE = "50";
+
+    /**
+     * Largest page size that can be requested.
+     */
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * Response header carrying the cursor of the next page.
+     * <p>It is only sent when the returned page is full, i.e. when there may be more results.</p>
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header carrying the total number of results, sent only when requested.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Clamps the requested page size to the allowed range.
+     *
+     * @param size the requested page size.
+     * @return a page size between 1 and {@link #MAX_SIZE}.
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
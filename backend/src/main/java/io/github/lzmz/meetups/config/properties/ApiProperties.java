@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @ConfigurationProperties(prefix = "api")
 @Getter
@@ -21,6 +23,36 @@ public class ApiProperties {
      */
     private Weatherbit weatherbit = new Weatherbit();
 
+    /**
+     * Check-in properties.
+     */
+    private CheckIn checkIn = new CheckIn();
+
+    /**
+     * Exceptions properties.
+     */
+    private Exceptions exceptions = new Exceptions();
+
+    /**
+     * Warm-up properties.
+     */
+    private WarmUp warmUp = new WarmUp();
+
+    /**
+     * Replica properties.
+     */
+    private Replica replica = new Replica();
+
+    /**
+     * Archive properties.
+     */
+    private Archive archive = new Archive();
+
+    /**
+     * Sync properties.
+     */
+    private Sync sync = new Sync();
+
     @Getter
     @Setter
     public static class Cors {
@@ -41,4 +73,74 @@ public class ApiProperties {
         private String apiKey = "";
     }
 
+    @Getter
+    @Setter
+    public static class CheckIn {
+
+        /**
+         * Whether the check-ins are acknowledged once written to a local log and written to the database in batches.
+         */
+        private boolean buffered = false;
+
+        /**
+         * Log where the buffered check-ins are kept until they are written to the database.
+         */
+        private String logFile = "check-in.log";
+    }
+
+    @Getter
+    @Setter
+    public static class Exceptions {
+
+        /**
+         * Whether the custom exceptions capture their stack trace, which is only useful while debugging.
+         */
+        private boolean stackTraces = false;
+    }
+
+    @Getter
+    @Setter
+    public static class WarmUp {
+
+        /**
+         * Number of times the main queries and the JWT parsing are run before the application is reported ready.
+         */
+        private int iterations = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        /**
+         * Time during which the read-only transactions of a user still go to the primary after a write of that user.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+
+        /**
+         * Age after which the meetups are moved with their invitations and enrollments to the archive tables.
+         */
+        private Duration horizon = Duration.ofDays(365);
+
+        /**
+         * Number of meetups moved to the archive tables in each transaction.
+         */
+        private int batchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Sync {
+
+        /**
+         * Time during which the deleted enrollments and invitations are reported by the incremental syncs.
+         * The syncs from an older watermark start from scratch.
+         */
+        private Duration deletionRetention = Duration.ofDays(30);
+    }
 }
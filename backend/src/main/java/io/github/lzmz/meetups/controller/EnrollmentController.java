@@ -1,7 +1,8 @@
 package io.github.lzmz.meetups.controller;
 
 import io.github.lzmz.meetups.dto.request.EnrollmentCreationDto;
-import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.CheckInResultDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentResultDto;
 import io.github.lzmz.meetups.endpoint.EnrollmentEndpoint;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.util.List;
 
 @Tag(name = "Enrollments")
 @RestController
@@ -32,17 +35,18 @@ public class EnrollmentController {
     }
 
     /**
-     * Creates a new enrollment.
+     * Creates a new enrollment, or adds the user to the meetup waitlist if the meetup is full.
      *
      * @param enrollmentCreationDto the enrollment creation request body.
-     * @return the created enrollment.
+     * @return the created enrollment with a 201 status, or a waitlisted result with a 202 status.
      * @throws DuplicateEntityException if the enrollment already exists.
      * @throws EntityNotFoundException  if the given meetup or user wasn't found.
      */
-    @Operation(summary = "Creates a new enrollment")
+    @Operation(summary = "Creates a new enrollment", description = "If the meetup is full the user is added to its waitlist and a WAITLISTED status is returned with a 202 status code")
     @PostMapping()
-    public ResponseEntity<EnrollmentDto> create(@Valid @RequestBody EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException {
-        return new ResponseEntity<>(enrollmentService.create(enrollmentCreationDto), HttpStatus.CREATED);
+    public ResponseEntity<EnrollmentResultDto> create(@Valid @RequestBody EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException {
+        EnrollmentResultDto result = enrollmentService.create(enrollmentCreationDto);
+        return new ResponseEntity<>(result, result.getStatus() == EnrollmentResultDto.Status.WAITLISTED ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
     }
 
     /**
@@ -58,4 +62,30 @@ public class EnrollmentController {
         enrollmentService.checkIn(enrollmentId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Makes the check-in of the users associated to the given enrollments.
+     *
+     * @param enrollmentIds the enrollment ids for which will be made the check-in.
+     * @return the outcome of the check-in of each given enrollment.
+     * @throws ValueNotAllowedException if too many enrollments were given.
+     */
+    @Operation(summary = "Makes the check-in of the users associated to the given enrollments")
+    @PostMapping(EnrollmentEndpoint.BULK_CHECK_IN)
+    public ResponseEntity<List<CheckInResultDto>> checkIn(@Valid @RequestBody List<Long> enrollmentIds) throws ValueNotAllowedException {
+        return ResponseEntity.ok(enrollmentService.checkIn(enrollmentIds));
+    }
+
+    /**
+     * Cancels the given enrollment.
+     *
+     * @param enrollmentId the enrollment id to be cancelled.
+     * @throws EntityNotFoundException if the given enrollment wasn't found.
+     */
+    @Operation(summary = "Cancels the given enrollment")
+    @DeleteMapping(EnrollmentEndpoint.ENROLLMENT)
+    public ResponseEntity<Void> cancel(@Valid @PathVariable long enrollmentId) throws EntityNotFoundException {
+        enrollmentService.cancel(enrollmentId);
+        return ResponseEntity.noContent().build();
+    }
 }
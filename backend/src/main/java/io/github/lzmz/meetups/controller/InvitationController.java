@@ -1,16 +1,22 @@
 package io.github.lzmz.meetups.controller;
 
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
 import io.github.lzmz.meetups.dto.request.InvitationCreationDto;
 import io.github.lzmz.meetups.dto.request.InvitationStatusDto;
 import io.github.lzmz.meetups.dto.response.InvitationDto;
 import io.github.lzmz.meetups.endpoint.InvitationEndpoint;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
 import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 import io.github.lzmz.meetups.model.InvitationModel;
 import io.github.lzmz.meetups.service.InvitationService;
+import io.github.lzmz.meetups.service.inbox.InvitationInbox;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,9 +27,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Set;
 
 @Tag(name = "Invitations")
 @RestController
@@ -31,9 +40,13 @@ import java.util.List;
 public class InvitationController {
 
     private final InvitationService invitationService;
+    private final InvitationInbox invitationInbox;
+    private final ChangeVersions changeVersions;
 
-    public InvitationController(InvitationService invitationService) {
+    public InvitationController(InvitationService invitationService, InvitationInbox invitationInbox, ChangeVersions changeVersions) {
         this.invitationService = invitationService;
+        this.invitationInbox = invitationInbox;
+        this.changeVersions = changeVersions;
     }
 
     /**
@@ -51,19 +64,71 @@ public class InvitationController {
     }
 
     /**
-     * Finds all the invitations for the given parameters.
+     * Finds a page of the invitations for the given parameters.
      *
      * @param meetupId the meetup that will be filtered.
      * @param userId   the user that will be filtered.
      * @param status   the status that will be filtered.
-     * @return a list of invitations filtered by the given parameters.
+     * @param after    the cursor returned with the previous page.
+     * @param size     the page size.
+     * @param count    whether the total number of invitations should be returned.
+     * @param archived whether the invitations of the archived meetups should be returned too.
+     * @param fields   the fields to retrieve, separated by commas, or {@code null} for all of them.
+     * @param request  the request, which is answered without a body if it's conditional and nothing changed.
+     * @return a page of invitations filtered by the given parameters.
+     * @throws ValueNotAllowedException if one of the given fields isn't a field of the invitations.
      */
-    @Operation(summary = "Retrieves a list of invitations filtered by the given parameters")
+    @Operation(summary = "Retrieves a page of invitations filtered by the given parameters",
+            description = "The cursor of the next page is returned in the " + KeysetPagination.NEXT_CURSOR_HEADER + " header. " +
+                    "The invitations of the archived meetups are only returned when the archived parameter is true. " +
+                    "Only the given fields and the id are returned when the fields parameter is present")
     @GetMapping()
     public ResponseEntity<List<InvitationDto>> findAll(@Valid @RequestParam(required = false) Long meetupId,
                                                        @Valid @RequestParam(required = false) Long userId,
-                                                       @Valid @RequestParam(required = false) InvitationModel.Status status) {
-        return new ResponseEntity<>(invitationService.findAll(meetupId, userId, status), HttpStatus.OK);
+                                                       @Valid @RequestParam(required = false) InvitationModel.Status status,
+                                                       @Valid @RequestParam(required = false) Long after,
+                                                       @Valid @RequestParam(defaultValue = KeysetPagination.DEFAULT_SIZE_VALUE) int size,
+                                                       @Valid @RequestParam(defaultValue = "false") boolean count,
+                                                       @Valid @RequestParam(defaultValue = "false") boolean archived,
+                                                       @Valid @RequestParam(name = Fieldsets.PARAMETER, required = false) String fields,
+                                                       WebRequest request) throws ValueNotAllowedException {
+        Set<String> fieldset = Fieldsets.parse(fields, InvitationDto.class);
+        // The unfiltered listing isn't tagged, since every change of any user or meetup would have to bump its version.
+        String tag = userId != null ? changeVersions.userTag(userId) : meetupId != null ? changeVersions.meetupTag(meetupId) : null;
+
+        if (tag != null && ChangeVersions.checkNotModified(request, tag)) {
+            return null;
+        }
+
+        List<InvitationDto> invitations = invitationService.findAll(meetupId, userId, status, after, size, archived, fieldset);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(ChangeVersions.REVALIDATE);
+
+        if (!invitations.isEmpty() && invitations.size() == KeysetPagination.clampSize(size)) {
+            headers.set(KeysetPagination.NEXT_CURSOR_HEADER, String.valueOf(invitations.get(invitations.size() - 1).getId()));
+        }
+
+        if (count) {
+            headers.set(KeysetPagination.TOTAL_COUNT_HEADER, String.valueOf(invitationService.count(meetupId, userId, status, archived)));
+        }
+
+        return new ResponseEntity<>(invitations, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Waits for the invitations of the given user created after the given one.
+     *
+     * @param userId the user whose invitations will be waited for.
+     * @param after  the id of the last invitation seen by the user.
+     * @return the invitations created after the given one, or an empty list if none was created in time.
+     * @throws LimitExceededException if there are too many waiting requests.
+     */
+    @Operation(summary = "Waits for the invitations of the given user created after the given one",
+            description = "Returns the missed invitations right away, otherwise waits up to " + InvitationInbox.WAIT_TIMEOUT + "ms for a new one")
+    @GetMapping(InvitationEndpoint.INBOX)
+    public DeferredResult<List<InvitationDto>> inbox(@Valid @RequestParam long userId,
+                                                     @Valid @RequestParam(defaultValue = "0") long after) throws LimitExceededException {
+        return invitationInbox.waitForInvitations(userId, after);
     }
 
     /**
@@ -6,10 +6,15 @@ import io.github.lzmz.meetups.dto.response.MeetupAdminDto;
 import io.github.lzmz.meetups.endpoint.MeetupEndpoint;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
 import io.github.lzmz.meetups.service.InvitationService;
 import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.attendance.AttendanceStreams;
+import io.github.lzmz.meetups.service.export.AttendeeExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,7 +22,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -29,10 +37,14 @@ public class MeetupController {
 
     private final MeetupService meetupService;
     private final InvitationService invitationService;
+    private final AttendanceStreams attendanceStreams;
+    private final AttendeeExport attendeeExport;
 
-    public MeetupController(MeetupService meetupService, InvitationService invitationService) {
+    public MeetupController(MeetupService meetupService, InvitationService invitationService, AttendanceStreams attendanceStreams, AttendeeExport attendeeExport) {
         this.meetupService = meetupService;
         this.invitationService = invitationService;
+        this.attendanceStreams = attendanceStreams;
+        this.attendeeExport = attendeeExport;
     }
 
     /**
@@ -90,4 +102,37 @@ public class MeetupController {
     public ResponseEntity<Double> getTemperature(@Valid @PathVariable long meetupId) throws EntityNotFoundException {
         return new ResponseEntity<>(meetupService.getTemperature(meetupId), HttpStatus.OK);
     }
+
+    /**
+     * Streams the attendance of the given meetup as Server-Sent Events named {@value AttendanceStreams#EVENT_NAME}.
+     * An event is sent on subscription and then whenever the attendance changes.
+     *
+     * @param meetupId the meetup id whose attendance will be streamed.
+     * @return the stream of attendance events.
+     * @throws EntityNotFoundException if the given meetup wasn't found.
+     * @throws LimitExceededException  if there are too many subscribers.
+     */
+    @Operation(summary = "Streams the attendance of the given meetup")
+    @GetMapping(MeetupEndpoint.ATTENDANCE)
+    public SseEmitter streamAttendance(@Valid @PathVariable long meetupId) throws EntityNotFoundException, LimitExceededException {
+        return attendanceStreams.subscribe(meetupId);
+    }
+
+    /**
+     * Exports the attendees of the given meetup.
+     *
+     * @param meetupId the meetup id whose attendees will be exported.
+     * @param format   the format of the export.
+     * @return the attendees of the given meetup, streamed as they are read.
+     * @throws EntityNotFoundException if the given meetup wasn't found.
+     */
+    @Operation(summary = "Exports the attendees of the given meetup as CSV or NDJSON")
+    @GetMapping(MeetupEndpoint.ATTENDEES)
+    public ResponseEntity<StreamingResponseBody> exportAttendees(@Valid @PathVariable long meetupId,
+                                                                 @Valid @RequestParam(defaultValue = "CSV") AttendeeExport.Format format) throws EntityNotFoundException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("meetup-" + meetupId + "-attendees." + format.getExtension()).build());
+        return new ResponseEntity<>(attendeeExport.export(meetupId, format), headers, HttpStatus.OK);
+    }
 }
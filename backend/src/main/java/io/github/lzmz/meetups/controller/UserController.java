@@ -1,16 +1,26 @@
 package io.github.lzmz.meetups.controller;
 
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
 import io.github.lzmz.meetups.dto.response.EnrollmentDto;
 import io.github.lzmz.meetups.dto.response.MeetupAdminDto;
 import io.github.lzmz.meetups.dto.response.MeetupUserDto;
+import io.github.lzmz.meetups.dto.response.OrganizerStatsDto;
+import io.github.lzmz.meetups.dto.response.SyncDto;
 import io.github.lzmz.meetups.dto.response.UserDto;
 import io.github.lzmz.meetups.endpoint.UserEndpoint;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 import io.github.lzmz.meetups.security.Role;
 import io.github.lzmz.meetups.service.EnrollmentService;
 import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.SyncService;
 import io.github.lzmz.meetups.service.UserService;
+import io.github.lzmz.meetups.service.index.UserPrefixIndex;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,9 +28,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Tag(name = "Users")
 @RestController
@@ -30,58 +44,182 @@ public class UserController {
     private final UserService userService;
     private final MeetupService meetupService;
     private final EnrollmentService enrollmentService;
+    private final SyncService syncService;
+    private final ChangeVersions changeVersions;
 
-    public UserController(UserService userService, MeetupService meetupService, EnrollmentService enrollmentService) {
+    public UserController(UserService userService, MeetupService meetupService, EnrollmentService enrollmentService, SyncService syncService, ChangeVersions changeVersions) {
         this.userService = userService;
         this.meetupService = meetupService;
         this.enrollmentService = enrollmentService;
+        this.syncService = syncService;
+        this.changeVersions = changeVersions;
     }
 
     /**
-     * Finds all the users filtered by the given parameters.
+     * Finds a page of the users filtered by the given parameters.
      *
-     * @param role the role that will be filtered.
-     * @return a list of users filtered by the given parameters.
+     * @param role    the role that will be filtered.
+     * @param after   the cursor returned with the previous page.
+     * @param size    the page size.
+     * @param request the request, which is answered without a body if it's conditional and nothing changed.
+     * @return a page of users filtered by the given parameters.
      */
-    @Operation(summary = "Retrieves a list of users filtered by the given parameters")
+    @Operation(summary = "Retrieves a page of users filtered by the given parameters",
+            description = "The cursor of the next page is returned in the " + KeysetPagination.NEXT_CURSOR_HEADER + " header")
     @GetMapping()
-    public ResponseEntity<List<UserDto>> findAll(@Valid @RequestParam(required = false) Role role) {
-        return new ResponseEntity<>(userService.findAll(role), HttpStatus.OK);
+    public ResponseEntity<List<UserDto>> findAll(@Valid @RequestParam(required = false) Role role,
+                                                 @Valid @RequestParam(required = false) Long after,
+                                                 @Valid @RequestParam(defaultValue = KeysetPagination.DEFAULT_SIZE_VALUE) int size,
+                                                 WebRequest request) {
+        if (ChangeVersions.checkNotModified(request, changeVersions.directoryTag())) {
+            return null;
+        }
+
+        List<UserDto> users = userService.findAll(role, after, size);
+        HttpHeaders headers = revalidate();
+
+        if (!users.isEmpty() && users.size() == KeysetPagination.clampSize(size)) {
+            headers.set(KeysetPagination.NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()));
+        }
+
+        return new ResponseEntity<>(users, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Searches the users whose name or email starts with the given prefix.
+     *
+     * @param q       the prefix to search.
+     * @param role    the role that will be filtered.
+     * @param limit   the maximum number of users to retrieve.
+     * @param request the request, which is answered without a body if it's conditional and nothing changed.
+     * @return the users matching the given prefix.
+     */
+    @Operation(summary = "Searches the users whose name or email starts with the given prefix")
+    @GetMapping(UserEndpoint.SEARCH)
+    public ResponseEntity<List<UserDto>> search(@Valid @RequestParam String q,
+                                                @Valid @RequestParam(required = false) Role role,
+                                                @Valid @RequestParam(defaultValue = UserPrefixIndex.DEFAULT_LIMIT_VALUE) int limit,
+                                                WebRequest request) {
+        if (ChangeVersions.checkNotModified(request, changeVersions.directoryTag())) {
+            return null;
+        }
+
+        return new ResponseEntity<>(userService.search(q, role, limit), revalidate(), HttpStatus.OK);
     }
 
     /**
      * Retrieves the user's enrollments.
      *
-     * @param userId the user id of the enrollments to retrieve.
+     * @param userId   the user id of the enrollments to retrieve.
+     * @param archived whether the enrollments of the archived meetups should be returned too.
+     * @param fields   the fields to retrieve, separated by commas, or {@code null} for all of them.
+     * @param request  the request, which is answered without a body if it's conditional and nothing changed.
      * @return the user's enrollments.
+     * @throws ValueNotAllowedException if one of the given fields isn't a field of the enrollments.
      */
-    @Operation(summary = "Retrieves the user's enrollments")
+    @Operation(summary = "Retrieves the user's enrollments",
+            description = "The enrollments of the archived meetups are only returned, after the others, when the archived parameter is true. " +
+                    "Only the given fields and the id are returned when the fields parameter is present")
     @GetMapping(UserEndpoint.ENROLLMENTS)
-    public ResponseEntity<List<EnrollmentDto>> findAll(@Valid @PathVariable long userId) {
-        return new ResponseEntity<>(enrollmentService.findAll(userId), HttpStatus.OK);
+    public ResponseEntity<List<EnrollmentDto>> findAll(@Valid @PathVariable long userId,
+                                                       @Valid @RequestParam(defaultValue = "false") boolean archived,
+                                                       @Valid @RequestParam(name = Fieldsets.PARAMETER, required = false) String fields,
+                                                       WebRequest request) throws ValueNotAllowedException {
+        Set<String> fieldset = Fieldsets.parse(fields, EnrollmentDto.class);
+
+        if (ChangeVersions.checkNotModified(request, changeVersions.userTag(userId))) {
+            return null;
+        }
+
+        return new ResponseEntity<>(enrollmentService.findAll(userId, archived, fieldset), revalidate(), HttpStatus.OK);
     }
 
     /**
-     * Retrieves the meetups created by the given user.
+     * Retrieves the meetups created by the given user between the given days.
      *
-     * @param userId the owner id of the meetups to retrieve.
+     * @param userId  the owner id of the meetups to retrieve.
+     * @param from    the first day of the range, inclusive, or {@code null} for no first day.
+     * @param to      the last day of the range, inclusive, or {@code null} for no last day.
+     * @param request the request, which is answered without a body if it's conditional and nothing changed.
      * @return a list of the meetups created by the given user.
+     * @throws ValueNotAllowedException if the range is reversed.
      */
-    @Operation(summary = "Retrieves the meetups created by the given user")
+    @Operation(summary = "Retrieves the meetups created by the given user between the given days",
+            description = "The archived meetups are only returned when the range has no start or starts before the archive horizon")
     @GetMapping(UserEndpoint.MEETUPS_CREATED)
-    public ResponseEntity<List<MeetupAdminDto>> getCreatedMeetups(@Valid @PathVariable long userId) {
-        return new ResponseEntity<>(meetupService.getCreatedMeetups(userId), HttpStatus.OK);
+    public ResponseEntity<List<MeetupAdminDto>> getCreatedMeetups(@Valid @PathVariable long userId,
+                                                                  @Valid @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @Valid @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  WebRequest request) throws ValueNotAllowedException {
+        if (ChangeVersions.checkNotModified(request, changeVersions.userTag(userId))) {
+            return null;
+        }
+
+        return new ResponseEntity<>(meetupService.getCreatedMeetups(userId, from, to), revalidate(), HttpStatus.OK);
     }
 
     /**
-     * Retrieves the meetups in which the given user is enrolled.
+     * Retrieves the meetups in which the given user is enrolled between the given days.
      *
-     * @param userId the user id of the meetups to retrieve.
+     * @param userId  the user id of the meetups to retrieve.
+     * @param from    the first day of the range, inclusive, or {@code null} for no first day.
+     * @param to      the last day of the range, inclusive, or {@code null} for no last day.
+     * @param request the request, which is answered without a body if it's conditional and nothing changed.
      * @return a list of meetups in which the given user is enrolled.
+     * @throws ValueNotAllowedException if the range is reversed.
      */
-    @Operation(summary = "Retrieves the meetups in which the given user is enrolled")
+    @Operation(summary = "Retrieves the meetups in which the given user is enrolled between the given days",
+            description = "The archived meetups are only returned when the range has no start or starts before the archive horizon")
     @GetMapping(UserEndpoint.MEETUPS_ENROLLED)
-    public ResponseEntity<List<MeetupUserDto>> getEnrolledMeetups(@Valid @PathVariable long userId) {
-        return new ResponseEntity<>(meetupService.getEnrolledMeetups(userId), HttpStatus.OK);
+    public ResponseEntity<List<MeetupUserDto>> getEnrolledMeetups(@Valid @PathVariable long userId,
+                                                                  @Valid @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @Valid @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                  WebRequest request) throws ValueNotAllowedException {
+        if (ChangeVersions.checkNotModified(request, changeVersions.userTag(userId))) {
+            return null;
+        }
+
+        return new ResponseEntity<>(meetupService.getEnrolledMeetups(userId, from, to), revalidate(), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the invitation and attendance stats of the meetups created by the given user between the given days.
+     *
+     * @param userId the owner id of the meetups.
+     * @param from   the first day of the range, inclusive.
+     * @param to     the last day of the range, inclusive.
+     * @return the stats of each meetup in the range and their totals.
+     * @throws ValueNotAllowedException if the range is reversed or too long.
+     */
+    @Operation(summary = "Retrieves the invitation and attendance stats of the meetups created by the given user",
+            description = "The range can't be longer than " + MeetupService.MAX_STATS_DAYS + " days")
+    @GetMapping(UserEndpoint.MEETUPS_STATS)
+    public ResponseEntity<OrganizerStatsDto> getStats(@Valid @PathVariable long userId,
+                                                      @Valid @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @Valid @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws ValueNotAllowedException {
+        return new ResponseEntity<>(meetupService.getStats(userId, from, to), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the enrollments, invitations and enrolled meetups of the given user changed or deleted since the
+     * given watermark.
+     *
+     * @param userId the user id of the data to retrieve.
+     * @param since  the watermark returned by the previous sync.
+     * @return the changed data and the watermark of the next sync.
+     */
+    @Operation(summary = "Retrieves the enrollments, invitations and enrolled meetups of the given user changed or deleted since the given watermark",
+            description = "Everything is retrieved, and the response is flagged as a reset, when no watermark is given or when it's older than " +
+                    "the retention of the deletions. Otherwise the ids of the deleted rows are returned, and have to be dropped before applying the changed rows")
+    @GetMapping(UserEndpoint.SYNC)
+    public ResponseEntity<SyncDto> sync(@Valid @PathVariable long userId,
+                                        @Valid @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return new ResponseEntity<>(syncService.sync(userId, since), HttpStatus.OK);
+    }
+
+    private static HttpHeaders revalidate() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(ChangeVersions.REVALIDATE);
+        return headers;
     }
 }
@@ -1,17 +1,23 @@
 package io.github.lzmz.meetups.controller;
 
+import io.github.lzmz.meetups.config.cache.WeatherCache;
 import io.github.lzmz.meetups.dto.response.DayForecastDto;
 import io.github.lzmz.meetups.endpoint.WeatherEndpoint;
 import io.github.lzmz.meetups.service.WeatherService;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Tag(name = "Weather")
 @RestController
@@ -19,14 +25,29 @@ import java.util.List;
 public class WeatherController {
 
     private final WeatherService weatherService;
+    private final ChangeVersions changeVersions;
 
-    public WeatherController(WeatherService weatherService) {
+    public WeatherController(WeatherService weatherService, ChangeVersions changeVersions) {
         this.weatherService = weatherService;
+        this.changeVersions = changeVersions;
     }
 
+    /**
+     * Retrieves a 16-day forecast in 1-day intervals, which may be cached by the client until the
+     * forecast cache is evicted.
+     *
+     * @param request the request, which is answered without a body if it's conditional and the forecast didn't change.
+     * @return a 16-day forecast.
+     */
     @Operation(summary = "Retrieves a 16-day forecast in 1-day intervals")
     @GetMapping(WeatherEndpoint.DAILY_FORECAST)
-    public ResponseEntity<List<DayForecastDto>> get16DaysDailyForecast() {
-        return new ResponseEntity<>(weatherService.getDailyForecast(), HttpStatus.CREATED);
+    public ResponseEntity<List<DayForecastDto>> get16DaysDailyForecast(WebRequest request) {
+        if (ChangeVersions.checkNotModified(request, changeVersions.dayTag())) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.maxAge(WeatherCache.timeToDailyForecastEviction().getSeconds(), TimeUnit.SECONDS).cachePrivate());
+        return new ResponseEntity<>(weatherService.getDailyForecast(), headers, HttpStatus.CREATED);
     }
 }
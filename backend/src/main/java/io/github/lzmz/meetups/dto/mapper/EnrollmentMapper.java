@@ -6,8 +6,6 @@ import io.github.lzmz.meetups.model.EnrollmentModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring")
 public interface EnrollmentMapper {
 
@@ -23,7 +21,6 @@ public interface EnrollmentMapper {
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "meetup", ignore = true)
     @Mapping(target = "checkedIn", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     EnrollmentModel enrollmentCreationDtoToEnrollment(EnrollmentCreationDto enrollmentCreationDto);
-
-    List<EnrollmentDto> enrollmentsToEnrollmentDtos(List<EnrollmentModel> enrollments);
 }
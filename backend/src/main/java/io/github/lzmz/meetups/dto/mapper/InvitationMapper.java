@@ -6,8 +6,6 @@ import io.github.lzmz.meetups.model.InvitationModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring")
 public interface InvitationMapper {
 
@@ -23,7 +21,6 @@ public interface InvitationMapper {
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "meetup", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
     InvitationModel invitationCreationDtoToInvitation(InvitationCreationDto invitationCreationDto);
-
-    List<InvitationDto> invitationsToInvitationDtos(List<InvitationModel> invitations);
 }
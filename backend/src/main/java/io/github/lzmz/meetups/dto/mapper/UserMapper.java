@@ -6,8 +6,6 @@ import io.github.lzmz.meetups.model.UserModel;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring")
 public interface UserMapper {
 
@@ -21,6 +19,4 @@ public interface UserMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "authorities", ignore = true)
     UserModel signUpDtoToUser(SignUpDto signUpDto);
-
-    List<UserDto> usersToUserDtos(List<UserModel> users);
 }
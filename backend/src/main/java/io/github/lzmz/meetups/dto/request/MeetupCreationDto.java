@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import java.io.Serializable;
 import java.time.LocalDate;
 
@@ -23,4 +24,8 @@ public class MeetupCreationDto implements Serializable {
     @NotNull
     @Schema(required = true)
     private Double temperature;
+
+    @Positive
+    @Schema(description = "Maximum number of enrolled users, unlimited if it's not given")
+    private Integer capacity;
 }
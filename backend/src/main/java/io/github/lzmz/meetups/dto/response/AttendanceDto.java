@@ -0,0 +1,25 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode
+public class AttendanceDto implements Serializable {
+
+    private long meetupId;
+    private long enrolled;
+    private long checkedIn;
+    private int beerCasesNeeded;
+
+    public AttendanceDto(long enrolled, long checkedIn) {
+        this.enrolled = enrolled;
+        this.checkedIn = checkedIn;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendeeDto implements Serializable {
+
+    private long userId;
+    private String name;
+    private String email;
+    private boolean checkedIn;
+}
@@ -0,0 +1,24 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResultDto implements Serializable {
+
+    private long enrollmentId;
+    private Outcome outcome;
+
+    public enum Outcome {
+        OK,
+        NOT_FOUND,
+        TOO_EARLY
+    }
+}
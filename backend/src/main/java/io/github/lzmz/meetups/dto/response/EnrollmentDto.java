@@ -1,13 +1,20 @@
 package io.github.lzmz.meetups.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
 import java.time.LocalDate;
 
+@JsonFilter(Fieldsets.FILTER)
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class EnrollmentDto implements Serializable {
 
     private long id;
@@ -0,0 +1,29 @@
+package io.github.lzmz.meetups.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentResultDto implements Serializable {
+
+    private Status status;
+
+    /**
+     * The created enrollment, or {@code null} if the user was added to the waitlist.
+     */
+    @JsonUnwrapped
+    private EnrollmentDto enrollment;
+
+    public enum Status {
+        ENROLLED,
+        WAITLISTED
+    }
+}
@@ -1,14 +1,21 @@
 package io.github.lzmz.meetups.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
 import io.github.lzmz.meetups.model.InvitationModel;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
 import java.time.LocalDate;
 
+@JsonFilter(Fieldsets.FILTER)
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class InvitationDto implements Serializable {
 
     private long id;
@@ -16,5 +16,6 @@ public class MeetupAdminDto implements Serializable {
     private String ownerName;
     private String ownerEmail;
     private double temperature;
+    private Integer capacity;
     private int beerCasesNeeded;
 }
@@ -0,0 +1,36 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class MeetupStatsDto implements Serializable {
+
+    private long meetupId;
+    private LocalDate day;
+    private double temperature;
+    private int invitationsSent;
+    private int invitationsAccepted;
+    private int invitationsDeclined;
+    private int enrolled;
+    private int checkedIn;
+    private int noShows;
+    private int beerCasesNeeded;
+
+    public MeetupStatsDto(long meetupId, LocalDate day, double temperature, int invitationsSent, int invitationsAccepted, int invitationsDeclined, int enrolled, int checkedIn) {
+        this.meetupId = meetupId;
+        this.day = day;
+        this.temperature = temperature;
+        this.invitationsSent = invitationsSent;
+        this.invitationsAccepted = invitationsAccepted;
+        this.invitationsDeclined = invitationsDeclined;
+        this.enrolled = enrolled;
+        this.checkedIn = checkedIn;
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrganizerStatsDto implements Serializable {
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<MeetupStatsDto> meetups;
+    private int invitationsSent;
+    private int invitationsAccepted;
+    private int invitationsDeclined;
+    private double acceptanceRate;
+    private int enrolled;
+    private int checkedIn;
+    private int noShows;
+    private double checkInRate;
+    private int beerCasesNeeded;
+}
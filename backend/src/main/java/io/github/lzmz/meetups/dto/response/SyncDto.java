@@ -0,0 +1,43 @@
+package io.github.lzmz.meetups.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncDto implements Serializable {
+
+    private LocalDateTime watermark;
+
+    /**
+     * Whether everything was retrieved, so the data kept from the previous syncs has to be dropped.
+     */
+    private boolean reset;
+
+    private List<EnrollmentDto> enrollments;
+    private List<InvitationDto> invitations;
+    private List<MeetupUserDto> enrolledMeetups;
+
+    /**
+     * The ids of the enrollments deleted since the watermark, to be dropped before applying the changed rows.
+     */
+    private List<Long> deletedEnrollments;
+
+    /**
+     * The ids of the invitations deleted since the watermark, to be dropped before applying the changed rows.
+     */
+    private List<Long> deletedInvitations;
+
+    /**
+     * The ids of the meetups of the deleted enrollments, to be dropped before applying the changed rows.
+     */
+    private List<Long> unenrolledMeetups;
+}
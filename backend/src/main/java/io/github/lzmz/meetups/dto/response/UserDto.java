@@ -2,12 +2,14 @@ package io.github.lzmz.meetups.dto.response;
 
 import io.github.lzmz.meetups.security.Role;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.io.Serializable;
 
 @Getter
 @Setter
+@NoArgsConstructor
 public class UserDto implements Serializable {
 
     private long id;
@@ -15,4 +17,11 @@ public class UserDto implements Serializable {
     private String email;
     private Role role;
     private String token;
+
+    public UserDto(long id, String name, String email, Role role) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
 }
@@ -0,0 +1,7 @@
+package io.github.lzmz.meetups.endpoint;
+
+public final class ActuatorEndpoint {
+    public static final String BASE = "/actuator";
+    public static final String ANT_HEALTH = "/health/**";
+    public static final String ANT_METRICS = "/metrics/**";
+}
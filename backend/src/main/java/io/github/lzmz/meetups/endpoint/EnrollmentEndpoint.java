@@ -2,7 +2,10 @@ package io.github.lzmz.meetups.endpoint;
 
 public final class EnrollmentEndpoint {
     public static final String BASE = "/enrollments";
+    public static final String BULK_CHECK_IN = "/check-in";
     public static final String CHECK_IN = "/{enrollmentId}/check-in";
     public static final String ANT_CHECK_IN = "/{enrollmentId:\\d+}/check-in";
+    public static final String ENROLLMENT = "/{enrollmentId}";
+    public static final String ANT_ENROLLMENT = "/{enrollmentId:\\d+}";
 
 }
@@ -8,4 +8,8 @@ public final class MeetupEndpoint {
     public static final String ANT_TEMPERATURE = "/{meetupId:\\d+}/temperature";
     public static final String INVITATIONS = "/{meetupId}/invitations";
     public static final String ANT_INVITATIONS = "/{meetupId:\\d+}/invitations";
+    public static final String ATTENDANCE = "/{meetupId}/attendance";
+    public static final String ANT_ATTENDANCE = "/{meetupId:\\d+}/attendance";
+    public static final String ATTENDEES = "/{meetupId}/attendees";
+    public static final String ANT_ATTENDEES = "/{meetupId:\\d+}/attendees";
 }
@@ -3,10 +3,15 @@ package io.github.lzmz.meetups.endpoint;
 public final class UserEndpoint {
     public static final String BASE = "/users";
     public static final String ANT_BASE = "/users*";
+    public static final String SEARCH = "/search";
     public static final String ENROLLMENTS = "/{userId}/enrollments";
     public static final String ANT_MEETUPS_ENROLLMENTS = "/{userId:\\d+}/enrollments";
     public static final String MEETUPS_CREATED = "/{userId}/meetups/created";
     public static final String ANT_MEETUPS_CREATED = "/{userId:\\d+}/meetups/created";
     public static final String MEETUPS_ENROLLED = "/{userId}/meetups/enrolled";
     public static final String ANT_MEETUPS_ENROLLED = "/{userId:\\d+}/meetups/enrolled";
+    public static final String MEETUPS_STATS = "/{userId}/meetups/stats";
+    public static final String ANT_MEETUPS_STATS = "/{userId:\\d+}/meetups/stats";
+    public static final String SYNC = "/{userId}/sync";
+    public static final String ANT_SYNC = "/{userId:\\d+}/sync";
 }
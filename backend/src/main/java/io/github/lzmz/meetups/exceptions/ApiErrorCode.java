@@ -13,6 +13,7 @@ public final class ApiErrorCode {
     public static final int ENTITY_NOT_FOUND = 100;
     public static final int DUPLICATE_ENTITY = 101;
     public static final int VALUE_NOT_ALLOWED = 102;
+    public static final int LIMIT_EXCEEDED = 103;
     public static final int BAD_CREDENTIALS = 120;
     public static final int ACCESS_DENIED = 121;
     public static final int JWT_UNSUPPORTED = 122;
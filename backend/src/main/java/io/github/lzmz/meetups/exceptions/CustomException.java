@@ -2,9 +2,26 @@ package io.github.lzmz.meetups.exceptions;
 
 /**
  * Base class to handle custom exceptions.
+ * <p>They are part of the ordinary flow of the requests and they are fully described by their fields, so
+ * their stack trace isn't captured unless it's enabled with {@link #setStackTraces(boolean)}.</p>
  */
 public abstract class CustomException extends Exception {
 
+    private static volatile boolean stackTraces = false;
+
+    protected CustomException() {
+        super(null, null, false, stackTraces);
+    }
+
+    /**
+     * Sets whether the custom exceptions created from now on capture their stack trace.
+     *
+     * @param stackTraces {@code true} to capture the stack traces.
+     */
+    public static void setStackTraces(boolean stackTraces) {
+        CustomException.stackTraces = stackTraces;
+    }
+
     /**
      * Replaces the start of capitalized words with hyphens and removes the <i>Model</i> suffix.
      *
@@ -33,6 +33,11 @@ import java.util.Objects;
 @ControllerAdvice
 public class CustomRestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Headers of the error responses, shared since they are read-only.
+     */
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.readOnlyHttpHeaders(new HttpHeaders());
+
     /**
      * Retrieves a new API error response entity.
      *
@@ -44,7 +49,7 @@ public class CustomRestExceptionHandler extends ResponseEntityExceptionHandler {
      */
     public ResponseEntity<Object> getErrorResponse(int code, HttpStatus status, String message, List<String> errors) {
         ApiError apiError = new ApiError(code, status, message, errors);
-        return new ResponseEntity<>(apiError, new HttpHeaders(), status);
+        return new ResponseEntity<>(apiError, NO_HEADERS, status);
     }
 
     /**
@@ -58,7 +63,7 @@ public class CustomRestExceptionHandler extends ResponseEntityExceptionHandler {
      */
     public ResponseEntity<Object> getErrorResponse(int code, HttpStatus status, String message, String error) {
         ApiError apiError = new ApiError(code, status, message, error.trim());
-        return new ResponseEntity<>(apiError, new HttpHeaders(), status);
+        return new ResponseEntity<>(apiError, NO_HEADERS, status);
     }
 
     /**
@@ -287,6 +292,22 @@ public class CustomRestExceptionHandler extends ResponseEntityExceptionHandler {
         return getErrorResponse(code, httpStatus, message, error);
     }
 
+    /**
+     * Triggered when a server-side resource with a bounded size is exhausted.
+     *
+     * @param ex the exception to handle.
+     * @return a {@link ResponseEntity} object with the error handled.
+     */
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler({LimitExceededException.class})
+    public ResponseEntity<Object> handleLimitExceeded(LimitExceededException ex) {
+        int code = ApiErrorCode.LIMIT_EXCEEDED;
+        HttpStatus httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        String message = "Limit exceeded";
+        String error = "The limit of " + ex.getLimit() + " " + ex.getResource() + " was reached. Try again later";
+        return getErrorResponse(code, httpStatus, message, error);
+    }
+
     /**
      * Triggered when a given authentication request was rejected because the credentials are invalid.
      *
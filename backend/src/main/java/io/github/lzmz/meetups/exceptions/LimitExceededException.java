@@ -0,0 +1,27 @@
+package io.github.lzmz.meetups.exceptions;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Class to handle exhausted server-side resources.
+ */
+@Getter
+@Setter
+public class LimitExceededException extends CustomException {
+
+    /**
+     * The name of the exhausted resource.
+     */
+    private final String resource;
+
+    /**
+     * The maximum amount of the resource.
+     */
+    private final int limit;
+
+    public LimitExceededException(String resource, int limit) {
+        this.resource = resource;
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Version of some data listed by the API, e.g. the enrollments, invitations and meetups of a user.
+ */
+@Entity
+@Table(name = "change_version")
+@Data
+@NoArgsConstructor
+public class ChangeVersionModel {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+}
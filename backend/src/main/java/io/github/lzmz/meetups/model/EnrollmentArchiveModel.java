@@ -0,0 +1,41 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Enrollment moved out of the live tables by the archival job along with its meetup.
+ */
+@Entity
+@Table(name = "enrollment_archive", indexes = @Index(name = "idx_enrollment_archive_user_meetup", columnList = "user_id, meetup_id"))
+@Data
+@EqualsAndHashCode(of = "id")
+public class EnrollmentArchiveModel {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meetup_id", nullable = false)
+    private MeetupArchiveModel meetup;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserModel user;
+
+    @Column(name = "checked_in")
+    private boolean checkedIn;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
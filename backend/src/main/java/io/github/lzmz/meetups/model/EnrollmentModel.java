@@ -2,20 +2,31 @@ package io.github.lzmz.meetups.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "enrollment", uniqueConstraints = @UniqueConstraint(columnNames = {"meetup_id", "user_id"}))
+@Table(name = "enrollment",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"meetup_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_enrollment_user_meetup", columnList = "user_id, meetup_id"),
+                @Index(name = "idx_enrollment_user_updated", columnList = "user_id, updated_at")
+        })
+@EntityListeners(AuditingEntityListener.class)
 @Data
 @EqualsAndHashCode(of = {"meetup", "user"})
 public class EnrollmentModel {
@@ -36,6 +47,10 @@ public class EnrollmentModel {
 
     @Column(name = "checked_in")
     private boolean checkedIn;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
 }
 
 
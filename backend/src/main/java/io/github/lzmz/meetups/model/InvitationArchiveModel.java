@@ -0,0 +1,47 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Invitation moved out of the live tables by the archival job along with its meetup.
+ */
+@Entity
+@Table(name = "invitation_archive", indexes = {
+        @Index(name = "idx_invitation_archive_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_invitation_archive_meetup_status", columnList = "meetup_id, status")
+})
+@Data
+@EqualsAndHashCode(of = "id")
+public class InvitationArchiveModel {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meetup_id", nullable = false)
+    private MeetupArchiveModel meetup;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private UserModel user;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.ORDINAL)
+    private InvitationModel.Status status;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,21 +2,34 @@ package io.github.lzmz.meetups.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "invitation", uniqueConstraints = @UniqueConstraint(columnNames = {"meetup_id", "user_id"}))
+@Table(name = "invitation",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"meetup_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_invitation_user_status", columnList = "user_id, status"),
+                @Index(name = "idx_invitation_meetup_status", columnList = "meetup_id, status"),
+                @Index(name = "idx_invitation_user_updated", columnList = "user_id, updated_at")
+        })
+@EntityListeners(AuditingEntityListener.class)
 @Data
 @EqualsAndHashCode(of = {"meetup", "user"})
 public class InvitationModel {
@@ -39,6 +52,10 @@ public class InvitationModel {
     @Enumerated(EnumType.ORDINAL)
     private Status status;
 
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     public enum Status {
         PENDING, ACCEPTED, DECLINED
     }
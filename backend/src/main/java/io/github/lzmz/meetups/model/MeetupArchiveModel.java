@@ -0,0 +1,69 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Meetup moved out of the live tables by the archival job, with its final invitation and enrollment counters.
+ * <p>Archived meetups are only inserted by the archival job and never change afterwards.</p>
+ */
+@Entity
+@Table(name = "meetup_archive", indexes = @Index(name = "idx_meetup_archive_owner_day", columnList = "owner_id, day"))
+@Data
+@EqualsAndHashCode(of = "id")
+public class MeetupArchiveModel {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private UserModel owner;
+
+    @Column(nullable = false)
+    private Double temperature;
+
+    private Integer capacity;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "invitations_sent", nullable = false)
+    private int invitationsSent;
+
+    @Column(name = "invitations_accepted", nullable = false)
+    private int invitationsAccepted;
+
+    @Column(name = "invitations_declined", nullable = false)
+    private int invitationsDeclined;
+
+    @Column(nullable = false)
+    private int enrolled;
+
+    @Column(name = "checked_in", nullable = false)
+    private int checkedIn;
+
+    @Transient
+    private int beerCasesNeeded;
+}
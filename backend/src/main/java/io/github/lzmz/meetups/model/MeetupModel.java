@@ -2,9 +2,13 @@ package io.github.lzmz.meetups.model;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -12,6 +16,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -25,7 +30,11 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "meetup", uniqueConstraints = @UniqueConstraint(columnNames = {"owner_id", "day"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "meetup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner_id", "day"}),
+        indexes = @Index(name = "idx_meetup_day", columnList = "day"))
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @EqualsAndHashCode(of = {"owner", "day"})
@@ -46,10 +55,16 @@ public class MeetupModel {
     @NotNull
     private Double temperature;
 
+    private Integer capacity;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(mappedBy = "meetup", fetch = FetchType.LAZY)
     private Set<EnrollmentModel> enrolledUsers = new HashSet<>();
 
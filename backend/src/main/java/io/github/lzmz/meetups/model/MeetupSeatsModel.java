@@ -0,0 +1,30 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Enrolled users counter of a meetup with a capacity.
+ */
+@Entity
+@Table(name = "meetup_seats")
+@Data
+@NoArgsConstructor
+public class MeetupSeatsModel {
+
+    @Id
+    @Column(name = "meetup_id")
+    private Long meetupId;
+
+    @Column(nullable = false)
+    private int enrolled;
+
+    public MeetupSeatsModel(Long meetupId) {
+        this.meetupId = meetupId;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Invitation and enrollment counters of a meetup.
+ */
+@Entity
+@Table(name = "meetup_stats")
+@Data
+@NoArgsConstructor
+public class MeetupStatsModel {
+
+    @Id
+    @Column(name = "meetup_id")
+    private Long meetupId;
+
+    @Column(name = "invitations_sent", nullable = false)
+    private int invitationsSent;
+
+    @Column(name = "invitations_accepted", nullable = false)
+    private int invitationsAccepted;
+
+    @Column(name = "invitations_declined", nullable = false)
+    private int invitationsDeclined;
+
+    @Column(nullable = false)
+    private int enrolled;
+
+    @Column(name = "checked_in", nullable = false)
+    private int checkedIn;
+
+    public MeetupStatsModel(Long meetupId) {
+        this.meetupId = meetupId;
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.lzmz.meetups.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Enrollment or invitation removed from the live tables, kept until the syncs of its user have reported it.
+ * <p>The user and meetup ids aren't foreign keys, since the deletion outlives the meetup when it's archived.</p>
+ */
+@Entity
+@Table(name = "sync_deletion", indexes = {
+        @Index(name = "idx_sync_deletion_user_deleted_at", columnList = "user_id, deleted_at"),
+        @Index(name = "idx_sync_deletion_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+public class SyncDeletionModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.ORDINAL)
+    private Type type;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "meetup_id", nullable = false)
+    private Long meetupId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public SyncDeletionModel(Long userId, Type type, Long entityId, Long meetupId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.type = type;
+        this.entityId = entityId;
+        this.meetupId = meetupId;
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * The type of the removed entity. The native queries of {@code SyncDeletionRepository} rely on its ordinals.
+     */
+    public enum Type {
+        ENROLLMENT,
+        INVITATION
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.model.ChangeVersionModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersionModel, String> {
+
+    /**
+     * Bumps the given version, creating it if it doesn't exist yet.
+     *
+     * @return the number of affected rows.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into change_version (name, version) values (:name, 1) " +
+            "on duplicate key update version = version + 1", nativeQuery = true)
+    int bump(@Param("name") String name);
+}
@@ -1,17 +1,79 @@
 package io.github.lzmz.meetups.repository;
 
+import io.github.lzmz.meetups.dto.response.AttendanceDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
 import io.github.lzmz.meetups.model.EnrollmentModel;
-import org.springframework.data.jpa.repository.EntityGraph;
+import io.github.lzmz.meetups.model.MeetupModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<EnrollmentModel, Long> {
+public interface EnrollmentRepository extends JpaRepository<EnrollmentModel, Long>, EnrollmentRepositoryCustom {
 
-    @EntityGraph(attributePaths = {"meetup", "user"})
-    List<EnrollmentModel> findAllWithMeetupAndUserByUserId(Long userId);
+    @Query("select new io.github.lzmz.meetups.dto.response.EnrollmentDto(e.id, u.id, m.id, o.name, o.email, m.day, m.temperature, e.checkedIn) " +
+            "from EnrollmentModel e join e.user u join e.meetup m join m.owner o " +
+            "where u.id = :userId and e.updatedAt >= :since")
+    List<EnrollmentDto> findAllDtosByUserIdUpdatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 
-    boolean existsByMeetupIdAndUserId(Long meetupId, Long userId);
-}
\ No newline at end of file
+    @Query("select case when count(e) > 0 then true else false end from EnrollmentModel e " +
+            "where e.meetup.id = :meetupId and e.user.id = :userId")
+    boolean existsByMeetupIdAndUserId(@Param("meetupId") Long meetupId, @Param("userId") Long userId);
+
+    @Query("select m from EnrollmentModel e join e.meetup m where e.id = :enrollmentId")
+    Optional<MeetupModel> findMeetupByEnrollmentId(@Param("enrollmentId") Long enrollmentId);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.AttendanceDto(count(e), coalesce(sum(case when e.checkedIn = true then 1 else 0 end), 0L)) " +
+            "from EnrollmentModel e where e.meetup.id = :meetupId")
+    AttendanceDto findAttendanceByMeetupId(@Param("meetupId") Long meetupId);
+
+    /**
+     * Finds the meetup day, the user and the meetup of each of the given enrollments.
+     *
+     * @return a list of tuples of enrollment id, meetup day, user id and meetup id.
+     */
+    @Query("select e.id, m.day, e.user.id, m.id from EnrollmentModel e join e.meetup m where e.id in :ids")
+    List<Object[]> findMeetupDaysByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.id from EnrollmentModel e where e.meetup.id = :meetupId")
+    List<Long> findAllIdsByMeetupId(@Param("meetupId") Long meetupId);
+
+    /**
+     * Makes the check-in of the users associated to the given enrollments, unless it was already made.
+     *
+     * @return the number of updated enrollments.
+     */
+    @Transactional
+    @Modifying
+    @Query("update EnrollmentModel e set e.checkedIn = true, e.updatedAt = :now where e.id in :ids and e.checkedIn = false")
+    int checkIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Removes the given enrollment.
+     *
+     * @return 1 if the enrollment was removed, 0 if it was already removed.
+     */
+    @Modifying
+    @Query("delete from EnrollmentModel e where e.id = :id")
+    int remove(@Param("id") Long id);
+
+    @Query("select distinct e.user.id from EnrollmentModel e where e.meetup.id in :meetupIds")
+    List<Long> findAllUserIdsByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+
+    /**
+     * Removes the enrollments of the given meetups.
+     *
+     * @return the number of removed enrollments.
+     */
+    @Modifying
+    @Query("delete from EnrollmentModel e where e.meetup.id in :meetupIds")
+    int removeAllByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+}
@@ -0,0 +1,30 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.AttendeeDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Retrieves the enrollments of the given user.
+     *
+     * @param userId   the user id of the enrollments.
+     * @param archived whether the enrollments of the archived meetups are retrieved too, after the live ones.
+     * @param fields   the fields to retrieve, or {@code null} for all of them.
+     * @return the enrollments of the given user.
+     */
+    List<EnrollmentDto> findAllByUserId(Long userId, boolean archived, Set<String> fields);
+
+    /**
+     * Streams the attendees of the given meetup, reading them from the database as the stream is consumed.
+     * The stream must be consumed and closed within a transaction, which can't run other statements meanwhile.
+     *
+     * @param meetupId the meetup id of the attendees.
+     * @return the attendees of the given meetup, ordered by user id.
+     */
+    Stream<AttendeeDto> streamAttendeesByMeetupId(Long meetupId);
+}
@@ -0,0 +1,89 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.AttendeeDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Builds the enrollment queries with only the columns and joins of the requested fields, from the live and the
+ * archive tables, and streams the attendees.
+ */
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    private static final SparseProjection<EnrollmentDto> PROJECTION = projection("EnrollmentModel e");
+    private static final SparseProjection<EnrollmentDto> ARCHIVE_PROJECTION = projection("EnrollmentArchiveModel e");
+
+    /**
+     * Number of attendees fetched at a time from the databases that don't stream the rows.
+     */
+    private static final int ATTENDEES_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EnrollmentDto> findAllByUserId(Long userId, boolean archived, Set<String> fields) {
+        List<EnrollmentDto> enrollments = findAllByUserId(PROJECTION, userId, fields);
+
+        if (archived) {
+            enrollments.addAll(findAllByUserId(ARCHIVE_PROJECTION, userId, fields));
+        }
+
+        return enrollments;
+    }
+
+    @Override
+    public Stream<AttendeeDto> streamAttendeesByMeetupId(Long meetupId) {
+        return entityManager.createQuery("select new io.github.lzmz.meetups.dto.response.AttendeeDto(u.id, u.name, u.email, e.checkedIn) " +
+                "from EnrollmentModel e join e.user u where e.meetup.id = :meetupId order by u.id", AttendeeDto.class)
+                .setParameter("meetupId", meetupId)
+                .setHint(QueryHints.HINT_FETCH_SIZE, attendeesFetchSize())
+                .getResultStream();
+    }
+
+    private List<EnrollmentDto> findAllByUserId(SparseProjection<EnrollmentDto> projection, Long userId, Set<String> fields) {
+        List<?> rows = entityManager.createQuery(projection.select(fields) + " where e.user.id = :userId")
+                .setParameter("userId", userId)
+                .getResultList();
+
+        return projection.map(rows, fields);
+    }
+
+    /**
+     * Connector/J only streams the rows of a result set, instead of reading all of them when the query is executed,
+     * if its fetch size is {@link Integer#MIN_VALUE}. The other drivers reject that fetch size.
+     *
+     * @return the fetch size of the attendees query.
+     */
+    private int attendeesFetchSize() {
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect ? Integer.MIN_VALUE : ATTENDEES_FETCH_SIZE;
+    }
+
+    /**
+     * @param from the {@code from} clause of the live or the archived enrollments, aliased {@code e}.
+     * @return the projection of the enrollments into their DTO.
+     */
+    private static SparseProjection<EnrollmentDto> projection(String from) {
+        return new SparseProjection<>(from, EnrollmentDto::new)
+                .join("m", "join e.meetup m")
+                .join("o", "join m.owner o")
+                .<Long>column("id", "e.id", EnrollmentDto::setId)
+                .<Long>column("userId", "e.user.id", EnrollmentDto::setUserId)
+                .<Long>column("meetupId", "e.meetup.id", EnrollmentDto::setMeetupId)
+                .<String>column("meetupOwnerName", "o.name", EnrollmentDto::setMeetupOwnerName, "m", "o")
+                .<String>column("meetupOwnerEmail", "o.email", EnrollmentDto::setMeetupOwnerEmail, "m", "o")
+                .<LocalDate>column("meetupDay", "m.day", EnrollmentDto::setMeetupDay, "m")
+                .<Double>column("meetupTemperature", "m.temperature", EnrollmentDto::setMeetupTemperature, "m")
+                .<Boolean>column("checkedIn", "e.checkedIn", EnrollmentDto::setCheckedIn);
+    }
+}
@@ -1,18 +1,47 @@
 package io.github.lzmz.meetups.repository;
 
+import io.github.lzmz.meetups.dto.response.InvitationDto;
 import io.github.lzmz.meetups.model.InvitationModel;
-import org.springframework.data.domain.Example;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface InvitationRepository extends JpaRepository<InvitationModel, Long> {
+public interface InvitationRepository extends JpaRepository<InvitationModel, Long>, InvitationRepositoryCustom {
 
-    @EntityGraph(attributePaths = {"meetup", "user"})
-    List<InvitationModel> findAll(Example invitation);
+    @Query("select case when count(i) > 0 then true else false end from InvitationModel i " +
+            "where i.meetup.id = :meetupId and i.user.id = :userId")
+    boolean existsByMeetupIdAndUserId(@Param("meetupId") Long meetupId, @Param("userId") Long userId);
 
-    boolean existsByMeetupIdAndUserId(Long meetupId, Long userId);
-}
\ No newline at end of file
+    @Query("select new io.github.lzmz.meetups.dto.response.InvitationDto(i.id, i.user.id, m.id, o.name, o.email, m.day, m.temperature, i.status) " +
+            "from InvitationModel i join i.meetup m join m.owner o " +
+            "where i.user.id = :userId and i.updatedAt >= :since")
+    List<InvitationDto> findAllDtosByUserIdUpdatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * Changes the status of the given invitation, unless it was changed since it was read.
+     *
+     * @return the number of updated invitations.
+     */
+    @Modifying
+    @Query("update InvitationModel i set i.status = :status, i.updatedAt = :now where i.id = :id and i.status = :previous")
+    int changeStatus(@Param("id") Long id, @Param("previous") InvitationModel.Status previous, @Param("status") InvitationModel.Status status, @Param("now") LocalDateTime now);
+
+    @Query("select distinct i.user.id from InvitationModel i where i.meetup.id in :meetupIds")
+    List<Long> findAllUserIdsByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+
+    /**
+     * Removes the invitations of the given meetups.
+     *
+     * @return the number of removed invitations.
+     */
+    @Modifying
+    @Query("delete from InvitationModel i where i.meetup.id in :meetupIds")
+    int removeAllByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+}
@@ -0,0 +1,35 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.model.InvitationModel;
+
+import java.util.List;
+import java.util.Set;
+
+public interface InvitationRepositoryCustom {
+
+    /**
+     * Retrieves a page of invitations ordered by id, filtered by the given non-null parameters.
+     *
+     * @param meetupId the meetup that will be filtered, or {@code null}.
+     * @param userId   the user that will be filtered, or {@code null}.
+     * @param status   the status that will be filtered, or {@code null}.
+     * @param afterId  the id after which the page starts, or {@code null} for the first page.
+     * @param size     the maximum number of invitations to retrieve.
+     * @param archived whether the invitations of the archived meetups are retrieved too.
+     * @param fields   the fields to retrieve, or {@code null} for all of them.
+     * @return a page of invitations.
+     */
+    List<InvitationDto> findPage(Long meetupId, Long userId, InvitationModel.Status status, Long afterId, int size, boolean archived, Set<String> fields);
+
+    /**
+     * Counts the invitations filtered by the given non-null parameters.
+     *
+     * @param meetupId the meetup that will be filtered, or {@code null}.
+     * @param userId   the user that will be filtered, or {@code null}.
+     * @param status   the status that will be filtered, or {@code null}.
+     * @param archived whether the invitations of the archived meetups are counted too.
+     * @return the number of invitations.
+     */
+    long countFiltered(Long meetupId, Long userId, InvitationModel.Status status, boolean archived);
+}
@@ -0,0 +1,149 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.model.InvitationModel;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the invitation queries with only the predicates that were requested, so each combination
+ * of filters produces a plain equality query that can be served by the invitation indexes of the live
+ * and the archive tables.
+ */
+public class InvitationRepositoryCustomImpl implements InvitationRepositoryCustom {
+
+    private static final String FROM = "InvitationModel i";
+    private static final String ARCHIVE_FROM = "InvitationArchiveModel i";
+    private static final SparseProjection<InvitationDto> PROJECTION = projection(FROM);
+    private static final SparseProjection<InvitationDto> ARCHIVE_PROJECTION = projection(ARCHIVE_FROM);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InvitationDto> findPage(Long meetupId, Long userId, InvitationModel.Status status, Long afterId, int size, boolean archived, Set<String> fields) {
+        List<InvitationDto> invitations = findPage(PROJECTION, meetupId, userId, status, afterId, size, fields);
+
+        if (!archived) {
+            return invitations;
+        }
+
+        // Both tables are paged by id, so the page is the first invitations of both pages.
+        invitations.addAll(findPage(ARCHIVE_PROJECTION, meetupId, userId, status, afterId, size, fields));
+        invitations.sort(Comparator.comparing(InvitationDto::getId));
+        return invitations.size() > size ? new ArrayList<>(invitations.subList(0, size)) : invitations;
+    }
+
+    @Override
+    public long countFiltered(Long meetupId, Long userId, InvitationModel.Status status, boolean archived) {
+        long count = countFiltered(FROM, meetupId, userId, status);
+        return archived ? count + countFiltered(ARCHIVE_FROM, meetupId, userId, status) : count;
+    }
+
+    private List<InvitationDto> findPage(SparseProjection<InvitationDto> projection, Long meetupId, Long userId, InvitationModel.Status status, Long afterId, int size, Set<String> fields) {
+        StringBuilder jpql = new StringBuilder(projection.select(fields));
+        String keyword = appendPredicates(jpql, meetupId, userId, status);
+
+        if (afterId != null) {
+            jpql.append(keyword).append(" i.id > :afterId");
+        }
+
+        jpql.append(" order by i.id");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        bindPredicates(query, meetupId, userId, status);
+
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+
+        return projection.map(query.setMaxResults(size).getResultList(), fields);
+    }
+
+    private long countFiltered(String from, Long meetupId, Long userId, InvitationModel.Status status) {
+        StringBuilder jpql = new StringBuilder("select count(i) from ").append(from);
+        appendPredicates(jpql, meetupId, userId, status);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        bindPredicates(query, meetupId, userId, status);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Appends a {@code where} clause with a predicate for each non-null filter.
+     *
+     * @param jpql     the query being built.
+     * @param meetupId the meetup that will be filtered, or {@code null}.
+     * @param userId   the user that will be filtered, or {@code null}.
+     * @param status   the status that will be filtered, or {@code null}.
+     * @return the keyword with which a further predicate has to be appended.
+     */
+    private String appendPredicates(StringBuilder jpql, Long meetupId, Long userId, InvitationModel.Status status) {
+        String keyword = " where";
+
+        if (meetupId != null) {
+            jpql.append(keyword).append(" i.meetup.id = :meetupId");
+            keyword = " and";
+        }
+
+        if (userId != null) {
+            jpql.append(keyword).append(" i.user.id = :userId");
+            keyword = " and";
+        }
+
+        if (status != null) {
+            jpql.append(keyword).append(" i.status = :status");
+            keyword = " and";
+        }
+
+        return keyword;
+    }
+
+    /**
+     * Binds the parameters appended by {@link #appendPredicates(StringBuilder, Long, Long, InvitationModel.Status)}.
+     *
+     * @param query    the query to bind.
+     * @param meetupId the meetup that will be filtered, or {@code null}.
+     * @param userId   the user that will be filtered, or {@code null}.
+     * @param status   the status that will be filtered, or {@code null}.
+     */
+    private void bindPredicates(Query query, Long meetupId, Long userId, InvitationModel.Status status) {
+        if (meetupId != null) {
+            query.setParameter("meetupId", meetupId);
+        }
+
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+    }
+
+    /**
+     * @param from the {@code from} clause of the live or the archived invitations, aliased {@code i}.
+     * @return the projection of the invitations into their DTO.
+     */
+    private static SparseProjection<InvitationDto> projection(String from) {
+        return new SparseProjection<>(from, InvitationDto::new)
+                .join("m", "join i.meetup m")
+                .join("o", "join m.owner o")
+                .<Long>column("id", "i.id", InvitationDto::setId)
+                .<Long>column("userId", "i.user.id", InvitationDto::setUserId)
+                .<Long>column("meetupId", "i.meetup.id", InvitationDto::setMeetupId)
+                .<String>column("meetupOwnerName", "o.name", InvitationDto::setMeetupOwnerName, "m", "o")
+                .<String>column("meetupOwnerEmail", "o.email", InvitationDto::setMeetupOwnerEmail, "m", "o")
+                .<LocalDate>column("meetupDay", "m.day", InvitationDto::setMeetupDay, "m")
+                .<Double>column("meetupTemperature", "m.temperature", InvitationDto::setMeetupTemperature, "m")
+                .<InvitationModel.Status>column("status", "i.status", InvitationDto::setStatus);
+    }
+}
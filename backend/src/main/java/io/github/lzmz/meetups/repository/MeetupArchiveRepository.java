@@ -0,0 +1,70 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.MeetupStatsDto;
+import io.github.lzmz.meetups.dto.response.MeetupUserDto;
+import io.github.lzmz.meetups.model.MeetupArchiveModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MeetupArchiveRepository extends JpaRepository<MeetupArchiveModel, Long> {
+
+    @Query("select m from MeetupArchiveModel m join fetch m.owner o " +
+            "where o.id = :ownerId and m.day between :from and :to order by m.day")
+    List<MeetupArchiveModel> findAllWithOwnerByOwnerIdAndDayBetween(@Param("ownerId") Long ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.MeetupUserDto(m.id, m.day, o.id, o.name, o.email, m.temperature) " +
+            "from EnrollmentArchiveModel e join e.meetup m join m.owner o " +
+            "where e.user.id = :userId and m.day between :from and :to order by m.day")
+    List<MeetupUserDto> findAllUserDtosByEnrolledUserIdAndDayBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.MeetupStatsDto(m.id, m.day, m.temperature, " +
+            "m.invitationsSent, m.invitationsAccepted, m.invitationsDeclined, m.enrolled, m.checkedIn) " +
+            "from MeetupArchiveModel m " +
+            "where m.owner.id = :ownerId and m.day between :from and :to order by m.day")
+    List<MeetupStatsDto> findAllStatsDtosByOwnerIdAndDayBetween(@Param("ownerId") Long ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Copies the given meetups and their counters from the live tables.
+     *
+     * @return the number of copied meetups.
+     */
+    @Modifying
+    @Query(value = "insert into meetup_archive (id, created_at, day, temperature, owner_id, capacity, updated_at, archived_at, " +
+            "invitations_sent, invitations_accepted, invitations_declined, enrolled, checked_in) " +
+            "select m.id, m.created_at, m.day, m.temperature, m.owner_id, m.capacity, m.updated_at, :archivedAt, " +
+            "coalesce(s.invitations_sent, 0), coalesce(s.invitations_accepted, 0), coalesce(s.invitations_declined, 0), " +
+            "coalesce(s.enrolled, 0), coalesce(s.checked_in, 0) " +
+            "from meetup m left join meetup_stats s on s.meetup_id = m.id where m.id in (:meetupIds)", nativeQuery = true)
+    int copyMeetups(@Param("meetupIds") Collection<Long> meetupIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Copies the enrollments of the given meetups from the live tables.
+     *
+     * @return the number of copied enrollments.
+     */
+    @Modifying
+    @Query(value = "insert into enrollment_archive (id, checked_in, meetup_id, user_id, updated_at) " +
+            "select e.id, e.checked_in, e.meetup_id, e.user_id, e.updated_at " +
+            "from enrollment e where e.meetup_id in (:meetupIds)", nativeQuery = true)
+    int copyEnrollments(@Param("meetupIds") Collection<Long> meetupIds);
+
+    /**
+     * Copies the invitations of the given meetups from the live tables.
+     *
+     * @return the number of copied invitations.
+     */
+    @Modifying
+    @Query(value = "insert into invitation_archive (id, status, meetup_id, user_id, updated_at) " +
+            "select i.id, i.status, i.meetup_id, i.user_id, i.updated_at " +
+            "from invitation i where i.meetup_id in (:meetupIds)", nativeQuery = true)
+    int copyInvitations(@Param("meetupIds") Collection<Long> meetupIds);
+}
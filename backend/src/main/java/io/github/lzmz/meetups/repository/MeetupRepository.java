@@ -1,11 +1,20 @@
 package io.github.lzmz.meetups.repository;
 
+import io.github.lzmz.meetups.dto.response.MeetupUserDto;
 import io.github.lzmz.meetups.model.MeetupModel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,13 +27,40 @@ public interface MeetupRepository extends JpaRepository<MeetupModel, Long> {
     Optional<MeetupModel> findWithEnrolledUsersById(Long id);
 
     @EntityGraph(attributePaths = {"enrolledUsers.meetup", "enrolledUsers.meetup.owner", "enrolledUsers.user"})
-    List<MeetupModel> findAllWithEnrolledUsersByOwnerId(Long ownerId);
+    @Query("select distinct m from MeetupModel m where m.owner.id = :ownerId and m.day between :from and :to order by m.day")
+    List<MeetupModel> findAllWithEnrolledUsersByOwnerIdAndDayBetween(@Param("ownerId") Long ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    @EntityGraph(attributePaths = {"enrolledUsers.meetup", "enrolledUsers.meetup.owner", "enrolledUsers.user"})
-    List<MeetupModel> findAllByEnrolledUsersUserId(Long userId);
+    @Query("select new io.github.lzmz.meetups.dto.response.MeetupUserDto(m.id, m.day, o.id, o.name, o.email, m.temperature) " +
+            "from EnrollmentModel e join e.meetup m join m.owner o " +
+            "where e.user.id = :userId and m.day between :from and :to order by m.day")
+    List<MeetupUserDto> findAllUserDtosByEnrolledUserIdAndDayBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.MeetupUserDto(m.id, m.day, o.id, o.name, o.email, m.temperature) " +
+            "from EnrollmentModel e join e.meetup m join m.owner o " +
+            "where e.user.id = :userId and (e.updatedAt >= :since or m.updatedAt >= :since)")
+    List<MeetupUserDto> findAllUserDtosByEnrolledUserIdUpdatedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 
     boolean existsById(Long id);
 
-    boolean existsByOwnerIdAndDay(Long ownerId, LocalDate day);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    @Query("select case when count(m) > 0 then true else false end from MeetupModel m " +
+            "where m.owner.id = :ownerId and m.day = :day")
+    boolean existsByOwnerIdAndDay(@Param("ownerId") Long ownerId, @Param("day") LocalDate day);
+
+    /**
+     * Finds the oldest meetups held before the given day.
+     *
+     * @return a list of tuples of meetup id and owner id.
+     */
+    @Query("select m.id, m.owner.id from MeetupModel m where m.day < :day order by m.day")
+    List<Object[]> findIdsAndOwnerIdsByDayBefore(@Param("day") LocalDate day, Pageable pageable);
 
-}
\ No newline at end of file
+    /**
+     * Removes the given meetups, which mustn't have any invitation, enrollment, waitlist entry, seats or counters left.
+     *
+     * @return the number of removed meetups.
+     */
+    @Modifying
+    @Query("delete from MeetupModel m where m.id in :ids")
+    int removeAll(@Param("ids") Collection<Long> ids);
+}
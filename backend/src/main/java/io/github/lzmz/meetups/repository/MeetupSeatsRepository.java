@@ -0,0 +1,47 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.model.MeetupSeatsModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface MeetupSeatsRepository extends JpaRepository<MeetupSeatsModel, Long> {
+
+    @Query("select s.enrolled from MeetupSeatsModel s where s.meetupId = :meetupId")
+    Optional<Integer> findEnrolledByMeetupId(@Param("meetupId") Long meetupId);
+
+    /**
+     * Takes a seat of the given meetup if there's one left.
+     *
+     * @return 1 if a seat was taken, 0 otherwise.
+     */
+    @Modifying
+    @Query("update MeetupSeatsModel s set s.enrolled = s.enrolled + 1 " +
+            "where s.meetupId = :meetupId and s.enrolled < :capacity")
+    int reserve(@Param("meetupId") Long meetupId, @Param("capacity") int capacity);
+
+    /**
+     * Gives back a seat of the given meetup.
+     *
+     * @return 1 if a seat was given back, 0 otherwise.
+     */
+    @Modifying
+    @Query("update MeetupSeatsModel s set s.enrolled = s.enrolled - 1 " +
+            "where s.meetupId = :meetupId and s.enrolled > 0")
+    int release(@Param("meetupId") Long meetupId);
+
+    /**
+     * Removes the seats of the given meetups.
+     *
+     * @return the number of removed seats.
+     */
+    @Modifying
+    @Query("delete from MeetupSeatsModel s where s.meetupId in :meetupIds")
+    int removeAllByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+}
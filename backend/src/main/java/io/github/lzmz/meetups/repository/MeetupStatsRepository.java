@@ -0,0 +1,56 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.MeetupStatsDto;
+import io.github.lzmz.meetups.model.MeetupStatsModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MeetupStatsRepository extends JpaRepository<MeetupStatsModel, Long> {
+
+    @Query("select new io.github.lzmz.meetups.dto.response.MeetupStatsDto(m.id, m.day, m.temperature, " +
+            "s.invitationsSent, s.invitationsAccepted, s.invitationsDeclined, s.enrolled, s.checkedIn) " +
+            "from MeetupModel m join MeetupStatsModel s on s.meetupId = m.id " +
+            "where m.owner.id = :ownerId and m.day between :from and :to order by m.day")
+    List<MeetupStatsDto> findAllDtosByOwnerIdAndDayBetween(@Param("ownerId") Long ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Adds the given amounts to the invitation counters of the given meetup.
+     *
+     * @return 1 if the counters were updated, 0 if the meetup has no counters.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MeetupStatsModel s set s.invitationsSent = s.invitationsSent + :sent, " +
+            "s.invitationsAccepted = s.invitationsAccepted + :accepted, s.invitationsDeclined = s.invitationsDeclined + :declined " +
+            "where s.meetupId = :meetupId")
+    int addInvitations(@Param("meetupId") Long meetupId, @Param("sent") int sent, @Param("accepted") int accepted, @Param("declined") int declined);
+
+    /**
+     * Adds the given amounts to the enrollment counters of the given meetup.
+     *
+     * @return 1 if the counters were updated, 0 if the meetup has no counters.
+     */
+    @Transactional
+    @Modifying
+    @Query("update MeetupStatsModel s set s.enrolled = s.enrolled + :enrolled, s.checkedIn = s.checkedIn + :checkedIn " +
+            "where s.meetupId = :meetupId")
+    int addEnrollments(@Param("meetupId") Long meetupId, @Param("enrolled") int enrolled, @Param("checkedIn") int checkedIn);
+
+    /**
+     * Removes the counters of the given meetups.
+     *
+     * @return the number of removed counters.
+     */
+    @Modifying
+    @Query("delete from MeetupStatsModel s where s.meetupId in :meetupIds")
+    int removeAllByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+}
@@ -0,0 +1,131 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Projection of an entity into a DTO with a sparse fieldset. Only the columns of the requested fields are
+ * selected, and a join is only added when one of them needs it.
+ *
+ * @param <T> the type of the DTO.
+ */
+final class SparseProjection<T> {
+
+    private final String from;
+    private final Supplier<T> constructor;
+    private final Map<String, String> joins = new LinkedHashMap<>();
+    private final Map<String, Column<T>> columns = new LinkedHashMap<>();
+
+    /**
+     * @param from        the {@code from} clause, with the alias of the queried entity.
+     * @param constructor the constructor of the DTO.
+     */
+    SparseProjection(String from, Supplier<T> constructor) {
+        this.from = from;
+        this.constructor = constructor;
+    }
+
+    /**
+     * Declares a join that can be needed by the columns. Joins must be declared after the ones they depend on.
+     *
+     * @param alias  the alias of the joined entity.
+     * @param clause the join clause.
+     * @return this projection.
+     */
+    SparseProjection<T> join(String alias, String clause) {
+        joins.put(alias, clause);
+        return this;
+    }
+
+    /**
+     * Declares the column of a field of the DTO.
+     *
+     * @param field  the name of the field.
+     * @param path   the path of the column.
+     * @param setter the setter of the field.
+     * @param joins  the aliases of the joins needed by the path.
+     * @return this projection.
+     */
+    @SuppressWarnings("unchecked")
+    <V> SparseProjection<T> column(String field, String path, BiConsumer<T, V> setter, String... joins) {
+        columns.put(field, new Column<>(path, (BiConsumer<T, Object>) setter, Arrays.asList(joins)));
+        return this;
+    }
+
+    /**
+     * Builds the {@code select} and {@code from} clauses of the given fieldset.
+     *
+     * @param fields the requested fields, or {@code null} for all of them.
+     * @return the start of the query.
+     */
+    String select(Set<String> fields) {
+        List<String> paths = new ArrayList<>();
+        Set<String> neededJoins = new LinkedHashSet<>();
+
+        for (Map.Entry<String, Column<T>> column : columns.entrySet()) {
+            if (Fieldsets.includes(fields, column.getKey())) {
+                paths.add(column.getValue().path);
+                neededJoins.addAll(column.getValue().joins);
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", paths)).append(" from ").append(from);
+        joins.forEach((alias, clause) -> {
+            if (neededJoins.contains(alias)) {
+                jpql.append(" ").append(clause);
+            }
+        });
+
+        return jpql.toString();
+    }
+
+    /**
+     * Maps the rows of a query started by {@link #select(Set)} to DTOs.
+     *
+     * @param rows   the rows of the query.
+     * @param fields the requested fields, or {@code null} for all of them.
+     * @return the DTOs with the requested fields set.
+     */
+    List<T> map(List<?> rows, Set<String> fields) {
+        List<T> dtos = new ArrayList<>(rows.size());
+
+        for (Object row : rows) {
+            // Single column queries return the column itself.
+            Object[] values = row instanceof Object[] ? (Object[]) row : new Object[]{row};
+            T dto = constructor.get();
+            int index = 0;
+
+            for (Map.Entry<String, Column<T>> column : columns.entrySet()) {
+                if (Fieldsets.includes(fields, column.getKey())) {
+                    column.getValue().setter.accept(dto, values[index++]);
+                }
+            }
+
+            dtos.add(dto);
+        }
+
+        return dtos;
+    }
+
+    private static final class Column<T> {
+
+        private final String path;
+        private final BiConsumer<T, Object> setter;
+        private final List<String> joins;
+
+        private Column(String path, BiConsumer<T, Object> setter, List<String> joins) {
+            this.path = path;
+            this.setter = setter;
+            this.joins = joins;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.model.SyncDeletionModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SyncDeletionRepository extends JpaRepository<SyncDeletionModel, Long> {
+
+    @Query("select d from SyncDeletionModel d where d.userId = :userId and d.deletedAt >= :since")
+    List<SyncDeletionModel> findAllByUserIdDeletedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * Records the deletion of the enrollments of the given meetups, before they are removed.
+     *
+     * @return the number of recorded deletions.
+     */
+    @Modifying
+    @Query(value = "insert into sync_deletion (user_id, type, entity_id, meetup_id, deleted_at) " +
+            "select e.user_id, 0, e.id, e.meetup_id, :deletedAt from enrollment e where e.meetup_id in (:meetupIds)", nativeQuery = true)
+    int addEnrollmentsByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Records the deletion of the invitations of the given meetups, before they are removed.
+     *
+     * @return the number of recorded deletions.
+     */
+    @Modifying
+    @Query(value = "insert into sync_deletion (user_id, type, entity_id, meetup_id, deleted_at) " +
+            "select i.user_id, 1, i.id, i.meetup_id, :deletedAt from invitation i where i.meetup_id in (:meetupIds)", nativeQuery = true)
+    int addInvitationsByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds, @Param("deletedAt") LocalDateTime deletedAt);
+
+    /**
+     * Removes the deletions recorded before the given time.
+     *
+     * @return the number of removed deletions.
+     */
+    @Modifying
+    @Query("delete from SyncDeletionModel d where d.deletedAt < :before")
+    int removeAllDeletedBefore(@Param("before") LocalDateTime before);
+}
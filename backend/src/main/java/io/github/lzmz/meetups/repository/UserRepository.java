@@ -1,10 +1,15 @@
 package io.github.lzmz.meetups.repository;
 
+import io.github.lzmz.meetups.dto.response.UserDto;
 import io.github.lzmz.meetups.model.UserModel;
-import org.springframework.data.domain.Example;
+import io.github.lzmz.meetups.security.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,7 +20,17 @@ public interface UserRepository extends JpaRepository<UserModel, Long> {
 
     Optional<UserModel> findByEmail(String email);
 
-    List<UserModel> findAll(Example user);
+    @Query("select new io.github.lzmz.meetups.dto.response.UserDto(u.id, u.name, u.email, u.role) from UserModel u " +
+            "where u.id > :afterId order by u.id")
+    List<UserDto> findPage(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.UserDto(u.id, u.name, u.email, u.role) from UserModel u " +
+            "where u.role = :role and u.id > :afterId order by u.id")
+    List<UserDto> findPageByRole(@Param("role") Role role, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select new io.github.lzmz.meetups.dto.response.UserDto(u.id, u.name, u.email, u.role) from UserModel u " +
+            "where u.createdAt >= :since and u.id > :afterId order by u.id")
+    List<UserDto> findPageCreatedSince(@Param("since") LocalDateTime since, @Param("afterId") long afterId, Pageable pageable);
 
     boolean existsByEmail(String email);
 }
\ No newline at end of file
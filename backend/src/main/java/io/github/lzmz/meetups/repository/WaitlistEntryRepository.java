@@ -0,0 +1,41 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.model.WaitlistEntryModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntryModel, Long> {
+
+    @Query("select w from WaitlistEntryModel w where w.meetup.id = :meetupId order by w.id")
+    List<WaitlistEntryModel> findFirstByMeetupId(@Param("meetupId") Long meetupId, Pageable pageable);
+
+    @Query("select case when count(w) > 0 then true else false end from WaitlistEntryModel w " +
+            "where w.meetup.id = :meetupId and w.user.id = :userId")
+    boolean existsByMeetupIdAndUserId(@Param("meetupId") Long meetupId, @Param("userId") Long userId);
+
+    /**
+     * Removes the given entry from the waitlist.
+     *
+     * @return 1 if the entry was removed, 0 if it was already removed.
+     */
+    @Modifying
+    @Query("delete from WaitlistEntryModel w where w.id = :id")
+    int remove(@Param("id") Long id);
+
+    /**
+     * Removes the waitlist entries of the given meetups.
+     *
+     * @return the number of removed entries.
+     */
+    @Modifying
+    @Query("delete from WaitlistEntryModel w where w.meetup.id in :meetupIds")
+    int removeAllByMeetupIds(@Param("meetupIds") Collection<Long> meetupIds);
+}
@@ -1,5 +1,6 @@
 package io.github.lzmz.meetups.security;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.lzmz.meetups.exceptions.ApiError;
 import io.github.lzmz.meetups.exceptions.ApiErrorCode;
@@ -11,17 +12,47 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
+/**
+ * Sends the responses of the requests rejected by the security filters.
+ * <p>Their bodies are fixed but for the timestamp, so each of them is serialized once on startup around a
+ * placeholder timestamp and the current one is written in its place on every response.</p>
+ */
 @Component
 public class SecurityResponder {
 
+    /**
+     * Timestamp serialized in place of the real one, which has to be unique within the bodies.
+     */
+    private static final LocalDateTime PLACEHOLDER_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0, 0, 123_456_789);
+
     private final ObjectMapper objectMapper;
+    private final boolean isoTimestamps;
+    private final RenderedError accessDenied;
+    private final RenderedError unsupportedJwt;
+    private final RenderedError malformedJwt;
+    private final RenderedError invalidSignatureJwt;
+    private final RenderedError expiredJwt;
+    private final RenderedError illegalArgumentJwt;
+    private final RenderedError unexpectedJwt;
 
-    public SecurityResponder(ObjectMapper objectMapper) {
+    public SecurityResponder(ObjectMapper objectMapper) throws JsonProcessingException {
         this.objectMapper = objectMapper;
+        this.isoTimestamps = objectMapper.writeValueAsString(PLACEHOLDER_TIMESTAMP).equals(quotedIso(PLACEHOLDER_TIMESTAMP));
+        this.accessDenied = render(new ApiError(ApiErrorCode.ACCESS_DENIED, HttpStatus.FORBIDDEN, "Access denied", "You don't have permission to access this resource"));
+        this.unsupportedJwt = render(new ApiError(ApiErrorCode.JWT_UNSUPPORTED, HttpStatus.UNAUTHORIZED, "Unsupported JWT", "The JWT received is in a particular format/configuration that does not match the format expected by the application"));
+        this.malformedJwt = render(new ApiError(ApiErrorCode.JWT_MALFORMED, HttpStatus.UNAUTHORIZED, "Malformed JWT", "JWT was not correctly constructed"));
+        this.invalidSignatureJwt = render(new ApiError(ApiErrorCode.JWT_INVALID_SIGNATURE, HttpStatus.UNAUTHORIZED, "Invalid signature", "JWS signature validation fails"));
+        this.expiredJwt = render(new ApiError(ApiErrorCode.JWT_EXPIRED, HttpStatus.UNAUTHORIZED, "Expired JWT", "The JWT has expired and a new authentication is required"));
+        this.illegalArgumentJwt = render(new ApiError(ApiErrorCode.JWT_ILLEGAL_ARGUMENT, HttpStatus.UNAUTHORIZED, "Invalid claims", "The claims string is null or empty or only whitespace"));
+        this.unexpectedJwt = render(new ApiError(ApiErrorCode.JWT_UNEXPECTED, HttpStatus.UNAUTHORIZED, "Invalid JWT", "Missing or invalid JWT"));
     }
 
     /**
@@ -50,11 +81,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void accessDenied(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.ACCESS_DENIED, HttpStatus.FORBIDDEN, "Access denied", "You don't have permission to access this resource");
-        respond(res, apiError);
+        respond(res, accessDenied);
     }
 
     /**
@@ -62,11 +92,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void unsupportedJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_UNSUPPORTED, HttpStatus.UNAUTHORIZED, "Unsupported JWT", "The JWT received is in a particular format/configuration that does not match the format expected by the application");
-        respond(res, apiError);
+        respond(res, unsupportedJwt);
     }
 
     /**
@@ -74,11 +103,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void malformedJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_MALFORMED, HttpStatus.UNAUTHORIZED, "Malformed JWT", "JWT was not correctly constructed");
-        respond(res, apiError);
+        respond(res, malformedJwt);
     }
 
     /**
@@ -86,11 +114,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void invalidSignatureJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_INVALID_SIGNATURE, HttpStatus.UNAUTHORIZED, "Invalid signature", "JWS signature validation fails");
-        respond(res, apiError);
+        respond(res, invalidSignatureJwt);
     }
 
     /**
@@ -98,11 +125,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void expiredJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_EXPIRED, HttpStatus.UNAUTHORIZED, "Expired JWT", "The JWT has expired and a new authentication is required");
-        respond(res, apiError);
+        respond(res, expiredJwt);
     }
 
     /**
@@ -110,11 +136,10 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void illegalArgumentJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_ILLEGAL_ARGUMENT, HttpStatus.UNAUTHORIZED, "Invalid claims", "The claims string is null or empty or only whitespace");
-        respond(res, apiError);
+        respond(res, illegalArgumentJwt);
     }
 
     /**
@@ -122,25 +147,74 @@ public class SecurityResponder {
      *
      * @param res {@link HttpServletResponse}
      * @throws IOException if an input or output exception occurred.
-     * @see #respond(HttpServletResponse, ApiError)
+     * @see #respond(HttpServletResponse, RenderedError)
      */
     public void unexpectedJwt(HttpServletResponse res) throws IOException {
-        ApiError apiError = new ApiError(ApiErrorCode.JWT_UNEXPECTED, HttpStatus.UNAUTHORIZED, "Invalid JWT", "Missing or invalid JWT");
-        respond(res, apiError);
+        respond(res, unexpectedJwt);
     }
 
     /**
-     * Sends a response based on the given {@link ApiError}.
+     * Sends a response with the given pre-rendered error and the current timestamp.
      *
-     * @param res      {@link HttpServletResponse}
-     * @param apiError the API error on which the response will be based.
+     * @param res   {@link HttpServletResponse}
+     * @param error the pre-rendered error to send.
      * @throws IOException if an input or output exception occurred.
      */
-    private void respond(HttpServletResponse res, ApiError apiError) throws IOException {
+    private void respond(HttpServletResponse res, RenderedError error) throws IOException {
+        byte[] timestamp = isoTimestamps
+                ? quotedIso(LocalDateTime.now()).getBytes(StandardCharsets.US_ASCII)
+                : objectMapper.writeValueAsBytes(LocalDateTime.now());
+
         res.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        res.setStatus(apiError.getStatus());
-        PrintWriter out = res.getWriter();
-        out.print(objectMapper.writeValueAsString(apiError));
+        res.setStatus(error.status);
+        res.setContentLength(error.prefix.length + timestamp.length + error.suffix.length);
+        ServletOutputStream out = res.getOutputStream();
+        out.write(error.prefix);
+        out.write(timestamp);
+        out.write(error.suffix);
         out.flush();
     }
+
+    /**
+     * Serializes the given {@link ApiError} and splits it around its timestamp.
+     *
+     * @param apiError the API error to serialize.
+     * @return the serialized API error.
+     * @throws JsonProcessingException if the API error couldn't be serialized.
+     */
+    private RenderedError render(ApiError apiError) throws JsonProcessingException {
+        apiError.setTimestamp(PLACEHOLDER_TIMESTAMP);
+        byte[] body = objectMapper.writeValueAsBytes(apiError);
+        byte[] placeholder = objectMapper.writeValueAsBytes(PLACEHOLDER_TIMESTAMP);
+
+        for (int i = 0; i + placeholder.length <= body.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(body, i, i + placeholder.length), placeholder)) {
+                return new RenderedError(apiError.getStatus(),
+                        Arrays.copyOfRange(body, 0, i),
+                        Arrays.copyOfRange(body, i + placeholder.length, body.length));
+            }
+        }
+
+        throw new IllegalStateException("The timestamp wasn't found in the serialized API error " + apiError.getCode());
+    }
+
+    private static String quotedIso(LocalDateTime timestamp) {
+        return '"' + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp) + '"';
+    }
+
+    /**
+     * A serialized API error, split around its timestamp.
+     */
+    private static final class RenderedError {
+
+        private final int status;
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        private RenderedError(int status, byte[] prefix, byte[] suffix) {
+            this.status = status;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package io.github.lzmz.meetups.security;
 
+import io.github.lzmz.meetups.endpoint.ActuatorEndpoint;
 import io.github.lzmz.meetups.endpoint.AuthEndpoint;
 import io.github.lzmz.meetups.endpoint.EnrollmentEndpoint;
 import io.github.lzmz.meetups.endpoint.InvitationEndpoint;
@@ -62,28 +63,40 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
                     // USER
                     .antMatchers(HttpMethod.GET, UserEndpoint.ANT_BASE).hasRole(Role.ADMIN.getName())
+                    .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.SEARCH).hasRole(Role.ADMIN.getName())
                     .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.ANT_MEETUPS_ENROLLMENTS).hasRole(Role.USER.getName())
                     .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.ANT_MEETUPS_CREATED).hasRole(Role.ADMIN.getName())
                     .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.ANT_MEETUPS_ENROLLED).hasRole(Role.USER.getName())
+                    .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.ANT_MEETUPS_STATS).hasRole(Role.ADMIN.getName())
+                    .antMatchers(HttpMethod.GET, UserEndpoint.BASE + UserEndpoint.ANT_SYNC).hasRole(Role.USER.getName())
 
                     // MEETUP
                     .antMatchers(HttpMethod.POST, MeetupEndpoint.BASE).hasRole(Role.ADMIN.getName())
                     .antMatchers(HttpMethod.GET, MeetupEndpoint.BASE + MeetupEndpoint.ANT_BEER_CASES).hasRole(Role.ADMIN.getName())
                     .antMatchers(HttpMethod.GET, MeetupEndpoint.BASE + MeetupEndpoint.ANT_TEMPERATURE).hasAnyRole(Role.USER.getName(), Role.ADMIN.getName())
                     .antMatchers(HttpMethod.POST, MeetupEndpoint.BASE + MeetupEndpoint.ANT_INVITATIONS).hasRole(Role.ADMIN.getName())
+                    .antMatchers(HttpMethod.GET, MeetupEndpoint.BASE + MeetupEndpoint.ANT_ATTENDANCE).hasRole(Role.ADMIN.getName())
+                    .antMatchers(HttpMethod.GET, MeetupEndpoint.BASE + MeetupEndpoint.ANT_ATTENDEES).hasRole(Role.ADMIN.getName())
 
                     // ENROLLMENT
                     .antMatchers(HttpMethod.POST, EnrollmentEndpoint.BASE).hasRole(Role.USER.getName())
                     .antMatchers(HttpMethod.POST, EnrollmentEndpoint.BASE + EnrollmentEndpoint.ANT_CHECK_IN).hasRole(Role.USER.getName())
+                    .antMatchers(HttpMethod.POST, EnrollmentEndpoint.BASE + EnrollmentEndpoint.BULK_CHECK_IN).hasRole(Role.USER.getName())
+                    .antMatchers(HttpMethod.DELETE, EnrollmentEndpoint.BASE + EnrollmentEndpoint.ANT_ENROLLMENT).hasRole(Role.USER.getName())
 
                     // INVITATION
                     .antMatchers(HttpMethod.GET, InvitationEndpoint.ANT_BASE).hasRole(Role.USER.getName())
+                    .antMatchers(HttpMethod.GET, InvitationEndpoint.BASE + InvitationEndpoint.INBOX).hasRole(Role.USER.getName())
                     .antMatchers(HttpMethod.POST, InvitationEndpoint.BASE).hasRole(Role.ADMIN.getName())
                     .antMatchers(HttpMethod.PATCH, InvitationEndpoint.BASE + InvitationEndpoint.ANT_INVITATION_STATUS).hasRole(Role.USER.getName())
 
                     // WEATHER
                     .antMatchers(HttpMethod.GET, WeatherEndpoint.BASE + WeatherEndpoint.ANT_DAILY_FORECAST).hasAnyRole(Role.USER.getName(), Role.ADMIN.getName())
 
+                    // ACTUATOR
+                    .antMatchers(HttpMethod.GET, ActuatorEndpoint.BASE + ActuatorEndpoint.ANT_HEALTH).permitAll()
+                    .antMatchers(HttpMethod.GET, ActuatorEndpoint.BASE + ActuatorEndpoint.ANT_METRICS).hasRole(Role.ADMIN.getName())
+
                 .anyRequest().authenticated().and()
                 .exceptionHandling().accessDeniedHandler(jwtAccessDeniedHandler).and()
                 .exceptionHandling().authenticationEntryPoint(jwtAuthenticationEntryPoint).and()
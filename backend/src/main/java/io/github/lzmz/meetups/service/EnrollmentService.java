@@ -1,39 +1,69 @@
 package io.github.lzmz.meetups.service;
 
 import io.github.lzmz.meetups.dto.request.EnrollmentCreationDto;
+import io.github.lzmz.meetups.dto.response.CheckInResultDto;
 import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentResultDto;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
 import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 
 import java.util.List;
+import java.util.Set;
 
 public interface EnrollmentService {
 
+    /**
+     * Maximum number of enrollments that can be checked in at once.
+     */
+    int MAX_BULK_CHECK_IN = 5_000;
+
     /**
      * Finds all the enrollments of the given user.
      *
-     * @param userId the user id to be found.
+     * @param userId   the user id to be found.
+     * @param archived whether the enrollments of the archived meetups are retrieved too, after the live ones.
+     * @param fields   the fields to retrieve, or {@code null} for all of them.
      * @return a list of enrollments of the given user.
      */
-    List<EnrollmentDto> findAll(Long userId);
+    List<EnrollmentDto> findAll(Long userId, boolean archived, Set<String> fields);
 
     /**
-     * Creates a new enrollment.
+     * Creates a new enrollment, or adds the user to the meetup waitlist if the meetup is full.
      *
      * @param enrollmentCreationDto the enrollment creation data.
-     * @return the created enrollment.
+     * @return the created enrollment, or a waitlisted result without enrollment if the meetup is full.
      * @throws DuplicateEntityException if the enrollment already exists.
      * @throws EntityNotFoundException  if the given meetup or user wasn't found.
      */
-    EnrollmentDto create(EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException;
+    EnrollmentResultDto create(EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException;
+
+    /**
+     * Cancels the given enrollment. Its seat is handed over to the first user of the meetup waitlist, if any.
+     *
+     * @param enrollmentId the enrollment id to be cancelled.
+     * @throws EntityNotFoundException if the enrollment wasn't found.
+     */
+    void cancel(long enrollmentId) throws EntityNotFoundException;
 
     /**
      * Makes the check-in of the user associated to the given enrollment.
+     * <p>When the check-ins are buffered, it's written to the database shortly after this method returns.</p>
      *
      * @param enrollmentId the enrollment id for which will be made the check-in.
      * @throws EntityNotFoundException  if the enrollment wasn't found.
      * @throws ValueNotAllowedException if the check-in couldn't be made.
      */
     void checkIn(long enrollmentId) throws EntityNotFoundException, ValueNotAllowedException;
+
+    /**
+     * Makes the check-in of the users associated to the given enrollments, in a single transaction.
+     * <p>Unknown enrollments and enrollments of meetups yet to come are reported in the results and left out,
+     * while repeated and {@code null} ids are ignored.</p>
+     *
+     * @param enrollmentIds the enrollment ids for which will be made the check-in.
+     * @return the outcome of the check-in of each given enrollment, in the given order.
+     * @throws ValueNotAllowedException if more than {@link #MAX_BULK_CHECK_IN} enrollments are given.
+     */
+    List<CheckInResultDto> checkIn(List<Long> enrollmentIds) throws ValueNotAllowedException;
 }
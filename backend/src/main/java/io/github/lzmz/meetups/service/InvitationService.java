@@ -9,18 +9,34 @@ import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 import io.github.lzmz.meetups.model.InvitationModel;
 
 import java.util.List;
+import java.util.Set;
 
 public interface InvitationService {
 
     /**
-     * Finds all the invitations for the given parameters.
+     * Finds a page of the invitations for the given parameters, ordered by id.
      *
      * @param meetupId the meetup that will be filtered.
      * @param userId   the user that will be filtered.
      * @param status   the status that will be filtered.
-     * @return a list of invitations filtered by the given parameters.
+     * @param after    the id of the last invitation of the previous page, or {@code null} for the first page.
+     * @param size     the page size.
+     * @param archived whether the invitations of the archived meetups are retrieved too.
+     * @param fields   the fields to retrieve, or {@code null} for all of them.
+     * @return a page of invitations filtered by the given parameters.
      */
-    List<InvitationDto> findAll(Long meetupId, Long userId, InvitationModel.Status status);
+    List<InvitationDto> findAll(Long meetupId, Long userId, InvitationModel.Status status, Long after, int size, boolean archived, Set<String> fields);
+
+    /**
+     * Counts all the invitations for the given parameters.
+     *
+     * @param meetupId the meetup that will be filtered.
+     * @param userId   the user that will be filtered.
+     * @param status   the status that will be filtered.
+     * @param archived whether the invitations of the archived meetups are counted too.
+     * @return the number of invitations filtered by the given parameters.
+     */
+    long count(Long meetupId, Long userId, InvitationModel.Status status, boolean archived);
 
     /**
      * Creates a new invitation.
@@ -45,7 +61,8 @@ public interface InvitationService {
 
     /**
      * Changes an invitation status.
-     * <p>If the invitation is accepted a new enrollment will be created.</p>
+     * <p>If the invitation is accepted a new enrollment will be created, or the user will be added to the meetup
+     * waitlist if the meetup is full.</p>
      *
      * @param invitationId        the id of the invitation that will be patched with the new status.
      * @param invitationStatusDto the invitation status patch data.
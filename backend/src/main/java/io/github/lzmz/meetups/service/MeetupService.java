@@ -3,13 +3,21 @@ package io.github.lzmz.meetups.service;
 import io.github.lzmz.meetups.dto.request.MeetupCreationDto;
 import io.github.lzmz.meetups.dto.response.MeetupAdminDto;
 import io.github.lzmz.meetups.dto.response.MeetupUserDto;
+import io.github.lzmz.meetups.dto.response.OrganizerStatsDto;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface MeetupService {
 
+    /**
+     * Maximum number of days of the range of the organizer stats.
+     */
+    int MAX_STATS_DAYS = 366;
+
 
     /**
      * Creates a new meetup.
@@ -30,6 +38,15 @@ public interface MeetupService {
      */
     int calculateBeerCasesNeeded(long meetupId) throws EntityNotFoundException;
 
+    /**
+     * Calculates the beer cases needed based on temperature and number of participants.
+     *
+     * @param temperature  the temperature that will be used to calculate the required beer cases.
+     * @param participants the number of participants that will be used to calculate the required beer cases.
+     * @return the beer cases needed.
+     */
+    int calculateBeerCasesNeeded(double temperature, int participants);
+
     /**
      * Retrieves the day's temperature of the meeting.
      *
@@ -40,18 +57,38 @@ public interface MeetupService {
     double getTemperature(long meetupId) throws EntityNotFoundException;
 
     /**
-     * Retrieves the meetups created by the given user.
+     * Retrieves the meetups created by the given user between the given days, ordered by day. The archived meetups
+     * are only retrieved when the range has no first day or starts before the horizon of the archive.
      *
      * @param ownerId the owner id of the meetups to retrieve.
+     * @param from    the first day of the range, inclusive, or {@code null} for no first day.
+     * @param to      the last day of the range, inclusive, or {@code null} for no last day.
      * @return a list of the meetups created by the given user.
+     * @throws ValueNotAllowedException if the range is reversed.
      */
-    List<MeetupAdminDto> getCreatedMeetups(long ownerId);
+    List<MeetupAdminDto> getCreatedMeetups(long ownerId, LocalDate from, LocalDate to) throws ValueNotAllowedException;
 
     /**
-     * Retrieves the meetups in which the given user is enrolled.
+     * Retrieves the meetups in which the given user is enrolled between the given days, ordered by day. The archived
+     * meetups are only retrieved when the range has no first day or starts before the horizon of the archive.
      *
      * @param userId the user id of the meetups to retrieve.
+     * @param from   the first day of the range, inclusive, or {@code null} for no first day.
+     * @param to     the last day of the range, inclusive, or {@code null} for no last day.
      * @return a list of meetups in which the given user is enrolled.
+     * @throws ValueNotAllowedException if the range is reversed.
+     */
+    List<MeetupUserDto> getEnrolledMeetups(long userId, LocalDate from, LocalDate to) throws ValueNotAllowedException;
+
+    /**
+     * Retrieves the invitation and attendance stats of the meetups created by the given user between the given days,
+     * along with their totals. The no-shows are only counted for the meetups already held.
+     *
+     * @param ownerId the owner id of the meetups.
+     * @param from    the first day of the range, inclusive.
+     * @param to      the last day of the range, inclusive.
+     * @return the stats of each meetup in the range and their totals.
+     * @throws ValueNotAllowedException if the range is reversed or longer than {@value #MAX_STATS_DAYS} days.
      */
-    List<MeetupUserDto> getEnrolledMeetups(long userId);
+    OrganizerStatsDto getStats(long ownerId, LocalDate from, LocalDate to) throws ValueNotAllowedException;
 }
@@ -0,0 +1,28 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.dto.response.SyncDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public interface SyncService {
+
+    /**
+     * Time subtracted from the start of a sync to get the watermark of the next one, so that the rows written
+     * by the transactions that were still running during the sync are sent again instead of missed.
+     */
+    Duration WATERMARK_OVERLAP = Duration.ofSeconds(10);
+
+    /**
+     * Retrieves the enrollments, invitations and enrolled meetups of the given user changed or deleted since the
+     * given watermark.
+     * <p>The deletions are reported as ids, and have to be applied before the changed rows, since an enrollment
+     * may be deleted and another one created for the same meetup. Everything is retrieved and the result is
+     * flagged as a reset when the watermark is older than the retention of the deletions.</p>
+     *
+     * @param userId the user whose data will be retrieved.
+     * @param since  the watermark returned by the previous sync, or {@code null} to retrieve everything.
+     * @return the changed rows and the watermark of the next sync.
+     */
+    SyncDto sync(long userId, LocalDateTime since);
+}
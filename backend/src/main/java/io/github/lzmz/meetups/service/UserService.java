@@ -10,12 +10,24 @@ import java.util.List;
 public interface UserService {
 
     /**
-     * Finds all the users filtered by the given parameters.
+     * Finds a page of the users filtered by the given parameters, ordered by id.
      *
-     * @param role the role that will be filtered.
-     * @return a list of users filtered by the given parameters.
+     * @param role  the role that will be filtered.
+     * @param after the id of the last user of the previous page, or {@code null} for the first page.
+     * @param size  the page size.
+     * @return a page of users filtered by the given parameters.
      */
-    List<UserDto> findAll(Role role);
+    List<UserDto> findAll(Role role, Long after, int size);
+
+    /**
+     * Searches the users whose name, any word of the name or email starts with the given prefix.
+     *
+     * @param prefix the prefix to search, case insensitive.
+     * @param role   the role that will be filtered.
+     * @param limit  the maximum number of users to retrieve.
+     * @return the users matching the given prefix, ordered by the matched term.
+     */
+    List<UserDto> search(String prefix, Role role, int limit);
 
     /**
      * Creates a new user.
@@ -0,0 +1,137 @@
+package io.github.lzmz.meetups.service.archive;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupArchiveRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves the meetups held before the {@code api.archive.horizon} property, with their invitations and enrollments,
+ * from the live tables to the archive tables, so the live tables only hold the recent meetups.
+ * <p>The meetups are moved in batches of {@code api.archive.batch-size} meetups, each one in its own transaction,
+ * so the rows are locked briefly and a run that stops halfway is resumed by the next one. The counters of each
+ * meetup are kept in its archived row, while its waitlist entries and seats are dropped, since they aren't used
+ * once the meetup is held. The moved enrollments and invitations are reported as deleted by the syncs, and are
+ * only listed when the archived ones are asked for.</p>
+ * <p>If two instances archive at once, the batch copied last fails on the primary keys of the archive tables
+ * and is rolled back.</p>
+ */
+@Component
+@Lazy(false)
+public class MeetupArchive {
+
+    /**
+     * Cron expression to schedule the archival.
+     * <p>It schedules the archival every day at 3:30 AM.</p>
+     */
+    public static final String ARCHIVE_EXPRESSION = "0 30 3 * * *";
+
+    private final MeetupRepository meetupRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final InvitationRepository invitationRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final MeetupSeatsRepository meetupSeatsRepository;
+    private final MeetupStatsRepository meetupStatsRepository;
+    private final MeetupArchiveRepository meetupArchiveRepository;
+    private final SyncDeletions syncDeletions;
+    private final ChangeVersions changeVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final long horizonDays;
+    private final int batchSize;
+
+    public MeetupArchive(MeetupRepository meetupRepository, EnrollmentRepository enrollmentRepository, InvitationRepository invitationRepository, WaitlistEntryRepository waitlistEntryRepository, MeetupSeatsRepository meetupSeatsRepository, MeetupStatsRepository meetupStatsRepository, MeetupArchiveRepository meetupArchiveRepository, SyncDeletions syncDeletions, ChangeVersions changeVersions, ApiProperties apiProperties, PlatformTransactionManager transactionManager) {
+        this.meetupRepository = meetupRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.invitationRepository = invitationRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.meetupSeatsRepository = meetupSeatsRepository;
+        this.meetupStatsRepository = meetupStatsRepository;
+        this.meetupArchiveRepository = meetupArchiveRepository;
+        this.syncDeletions = syncDeletions;
+        this.changeVersions = changeVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonDays = apiProperties.getArchive().getHorizon().toDays();
+        this.batchSize = apiProperties.getArchive().getBatchSize();
+    }
+
+    /**
+     * Retrieves the horizon of the archive. The meetups held before it may be either in the live tables or in the
+     * archive tables, while the meetups held since it are always in the live tables.
+     *
+     * @return the first day of the meetups that can't be archived yet.
+     */
+    public LocalDate getHorizon() {
+        return LocalDate.now().minusDays(horizonDays);
+    }
+
+    /**
+     * Moves the meetups held before the horizon to the archive tables.
+     */
+    @Scheduled(cron = ARCHIVE_EXPRESSION)
+    public void archive() {
+        LocalDate horizon = getHorizon();
+        Integer archived;
+
+        do {
+            archived = transactionTemplate.execute(status -> archiveBatch(horizon));
+        } while (archived != null && archived == batchSize);
+    }
+
+    /**
+     * Moves the oldest meetups held before the given day to the archive tables.
+     *
+     * @param horizon the day of the meetups that are kept in the live tables.
+     * @return the number of archived meetups.
+     */
+    private int archiveBatch(LocalDate horizon) {
+        List<Long> meetupIds = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+
+        for (Object[] meetup : meetupRepository.findIdsAndOwnerIdsByDayBefore(horizon, PageRequest.of(0, batchSize))) {
+            meetupIds.add((Long) meetup[0]);
+            userIds.add((Long) meetup[1]);
+        }
+
+        if (meetupIds.isEmpty()) {
+            return 0;
+        }
+
+        userIds.addAll(enrollmentRepository.findAllUserIdsByMeetupIds(meetupIds));
+        userIds.addAll(invitationRepository.findAllUserIdsByMeetupIds(meetupIds));
+
+        meetupArchiveRepository.copyMeetups(meetupIds, LocalDateTime.now());
+        meetupArchiveRepository.copyEnrollments(meetupIds);
+        meetupArchiveRepository.copyInvitations(meetupIds);
+        syncDeletions.meetupsRemoved(meetupIds);
+
+        enrollmentRepository.removeAllByMeetupIds(meetupIds);
+        invitationRepository.removeAllByMeetupIds(meetupIds);
+        waitlistEntryRepository.removeAllByMeetupIds(meetupIds);
+        meetupSeatsRepository.removeAllByMeetupIds(meetupIds);
+        meetupStatsRepository.removeAllByMeetupIds(meetupIds);
+        meetupRepository.removeAll(meetupIds);
+
+        meetupIds.forEach(changeVersions::meetupChanged);
+        userIds.forEach(changeVersions::userChanged);
+        return meetupIds.size();
+    }
+}
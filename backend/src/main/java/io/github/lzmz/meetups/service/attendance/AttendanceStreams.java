@@ -0,0 +1,244 @@
+package io.github.lzmz.meetups.service.attendance;
+
+import io.github.lzmz.meetups.dto.response.AttendanceDto;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.MeetupStatsModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.service.MeetupService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the attendance of the meetups to their subscribers as Server-Sent Events.
+ * <p>The enrollments and check-ins made through this instance mark their meetup as changed once committed,
+ * and the attendance of the changed meetups with subscribers is reloaded once per tick, whatever the number
+ * of subscribers, and only sent when it changed. Enrollments and check-ins are therefore coalesced into at
+ * most one event per tick, and nothing is queried while nothing changes. The changes made through other
+ * instances are found by comparing the counters of the meetup stats with the last sent attendance, with a
+ * single primary key lookup for all the meetups with subscribers every {@link #SYNC_DELAY} milliseconds.
+ * The number of subscribers per instance is bounded.</p>
+ */
+@Component
+@Lazy(false)
+public class AttendanceStreams {
+
+    /**
+     * Delay in milliseconds between two attendance updates of a meetup.
+     */
+    public static final long PUBLISH_DELAY = 500;
+
+    /**
+     * Delay in milliseconds between two lookups of the changes made through other instances.
+     */
+    public static final long SYNC_DELAY = 5_000;
+
+    /**
+     * Delay in milliseconds between two heartbeats, which keep idle streams open through proxies.
+     */
+    public static final long HEARTBEAT_DELAY = 15_000;
+
+    /**
+     * Time in milliseconds after which a stream is closed and has to be reopened by the client.
+     */
+    public static final long STREAM_TIMEOUT = 30 * 60_000;
+
+    /**
+     * Maximum number of subscribers of this instance.
+     */
+    public static final int MAX_SUBSCRIBERS = 1_000;
+
+    /**
+     * Name of the attendance events.
+     */
+    public static final String EVENT_NAME = "attendance";
+
+    private final MeetupRepository meetupRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final MeetupStatsRepository meetupStatsRepository;
+    private final MeetupService meetupService;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, AttendanceDto> lastSent = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public AttendanceStreams(MeetupRepository meetupRepository, EnrollmentRepository enrollmentRepository, MeetupStatsRepository meetupStatsRepository, MeetupService meetupService) {
+        this.meetupRepository = meetupRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.meetupStatsRepository = meetupStatsRepository;
+        this.meetupService = meetupService;
+    }
+
+    /**
+     * Subscribes to the attendance of the given meetup. The current attendance is sent right away.
+     *
+     * @param meetupId the meetup id whose attendance will be streamed.
+     * @return the stream of attendance events.
+     * @throws EntityNotFoundException if the meetup wasn't found.
+     * @throws LimitExceededException  if this instance already has the maximum number of subscribers.
+     */
+    public SseEmitter subscribe(long meetupId) throws EntityNotFoundException, LimitExceededException {
+        AttendanceDto attendance = loadAttendance(meetupId);
+
+        if (subscriberCount.incrementAndGet() > MAX_SUBSCRIBERS) {
+            subscriberCount.decrementAndGet();
+            throw new LimitExceededException("attendance subscribers", MAX_SUBSCRIBERS);
+        }
+
+        SseEmitter emitter = createEmitter();
+        emitter.onCompletion(() -> unsubscribe(meetupId, emitter));
+        emitter.onTimeout(() -> unsubscribe(meetupId, emitter));
+        emitter.onError(e -> unsubscribe(meetupId, emitter));
+        subscribers.compute(meetupId, (id, emitters) -> {
+            Set<SseEmitter> meetupEmitters = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+            meetupEmitters.add(emitter);
+            return meetupEmitters;
+        });
+
+        // The other subscribers missed the changes made through other instances since the last sync.
+        AttendanceDto previous = lastSent.putIfAbsent(meetupId, attendance);
+        if (previous != null && !previous.equals(attendance)) {
+            changed.add(meetupId);
+        }
+
+        send(meetupId, emitter, SseEmitter.event().name(EVENT_NAME).data(attendance, MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    /**
+     * Marks the attendance of the given meetup as changed once the current transaction is committed.
+     *
+     * @param meetupId the meetup id whose enrollments or check-ins changed.
+     */
+    public void attendanceChanged(long meetupId) {
+        if (!subscribers.containsKey(meetupId)) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed.add(meetupId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                changed.add(meetupId);
+            }
+        });
+    }
+
+    /**
+     * Sends the attendance of the meetups with subscribers that changed since the last tick.
+     */
+    @Scheduled(fixedDelay = PUBLISH_DELAY)
+    public void publish() {
+        lastSent.keySet().retainAll(subscribers.keySet());
+        List<Long> meetupIds = new ArrayList<>(changed);
+        changed.removeAll(meetupIds);
+
+        for (Long meetupId : meetupIds) {
+            Set<SseEmitter> emitters = subscribers.get(meetupId);
+            AttendanceDto attendance;
+
+            if (emitters == null) {
+                continue;
+            }
+
+            try {
+                attendance = loadAttendance(meetupId);
+            } catch (EntityNotFoundException e) {
+                emitters.forEach(SseEmitter::complete);
+                continue;
+            }
+
+            if (!attendance.equals(lastSent.put(meetupId, attendance))) {
+                emitters.forEach(emitter -> send(meetupId, emitter, SseEmitter.event().name(EVENT_NAME).data(attendance, MediaType.APPLICATION_JSON)));
+            }
+        }
+    }
+
+    /**
+     * Marks as changed the meetups with subscribers whose attendance was changed through other instances.
+     */
+    @Scheduled(fixedDelay = SYNC_DELAY)
+    public void sync() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Set<Long> meetupIds = new HashSet<>(subscribers.keySet());
+
+        for (MeetupStatsModel stats : meetupStatsRepository.findAllById(meetupIds)) {
+            AttendanceDto attendance = lastSent.get(stats.getMeetupId());
+
+            if (attendance != null && attendance.getEnrolled() == stats.getEnrolled() && attendance.getCheckedIn() == stats.getCheckedIn()) {
+                meetupIds.remove(stats.getMeetupId());
+            }
+        }
+
+        // The meetups without stats were removed, so they're reloaded as well to complete their streams.
+        changed.addAll(meetupIds);
+    }
+
+    /**
+     * Sends a comment to every subscriber, so that dropped connections are detected and released.
+     */
+    @Scheduled(fixedDelay = HEARTBEAT_DELAY)
+    public void heartbeat() {
+        subscribers.forEach((meetupId, emitters) -> emitters.forEach(emitter -> send(meetupId, emitter, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Creates the emitter of a new subscriber.
+     *
+     * @return an emitter that times out after {@link #STREAM_TIMEOUT} milliseconds.
+     */
+    SseEmitter createEmitter() {
+        return new SseEmitter(STREAM_TIMEOUT);
+    }
+
+    private AttendanceDto loadAttendance(long meetupId) throws EntityNotFoundException {
+        // The meetup is usually served by the second-level cache.
+        MeetupModel meetup = meetupRepository.findById(meetupId).orElseThrow(() -> new EntityNotFoundException(MeetupModel.class, meetupId));
+        AttendanceDto attendance = enrollmentRepository.findAttendanceByMeetupId(meetupId);
+        attendance.setMeetupId(meetupId);
+        attendance.setBeerCasesNeeded(meetupService.calculateBeerCasesNeeded(meetup.getTemperature(), (int) attendance.getEnrolled()));
+        return attendance;
+    }
+
+    private void send(long meetupId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(meetupId, emitter);
+        }
+    }
+
+    private void unsubscribe(long meetupId, SseEmitter emitter) {
+        subscribers.computeIfPresent(meetupId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.lzmz.meetups.service.checkin;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer of check-ins, enabled by the {@code api.check-in.buffered} property.
+ * <p>Check-ins are validated against an in-memory view of the meetup day of each enrollment, which is loaded
+ * for all the enrollments of a meetup at once. Each accepted check-in is appended to a local log and forced
+ * to disk before it's acknowledged, and the pending check-ins are written to the database periodically with
+ * batched updates. The log is then compacted to the check-ins still pending, and it's replayed on startup,
+ * so no acknowledged check-in is lost if the application stops before writing it.</p>
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "api.check-in", name = "buffered", havingValue = "true")
+public class CheckInBuffer {
+
+    /**
+     * Delay in milliseconds between two writes of the pending check-ins.
+     */
+    public static final long FLUSH_DELAY = 1_000;
+
+    /**
+     * Cron expression to schedule the eviction of the in-memory view.
+     * <p>It schedules the eviction every day at midnight.</p>
+     */
+    public static final String VIEW_EVICT_EXPRESSION = "0 0 0 * * *";
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final MeetupStats meetupStats;
+    private final ChangeVersions changeVersions;
+    private final Path logFile;
+    private final Map<Long, LocalDate> meetupDays = new ConcurrentHashMap<>();
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private FileChannel log;
+
+    public CheckInBuffer(EnrollmentRepository enrollmentRepository, MeetupStats meetupStats, ChangeVersions changeVersions, ApiProperties apiProperties) throws IOException {
+        this.enrollmentRepository = enrollmentRepository;
+        this.meetupStats = meetupStats;
+        this.changeVersions = changeVersions;
+        this.logFile = Paths.get(apiProperties.getCheckIn().getLogFile()).toAbsolutePath();
+        Files.createDirectories(logFile.getParent());
+        replayLog();
+        this.log = openLog();
+    }
+
+    /**
+     * Makes the check-in of the user associated to the given enrollment. The check-in is durable once
+     * this method returns, but it's written to the database later.
+     *
+     * @param enrollmentId the enrollment id for which will be made the check-in.
+     * @throws EntityNotFoundException  if the enrollment wasn't found.
+     * @throws ValueNotAllowedException if the check-in couldn't be made.
+     * @throws IOException              if the check-in couldn't be written to the log.
+     */
+    public void checkIn(long enrollmentId) throws EntityNotFoundException, ValueNotAllowedException, IOException {
+        LocalDate day = meetupDays.get(enrollmentId);
+
+        if (day == null) {
+            day = loadMeetupDays(enrollmentId);
+        }
+
+        if (day.isAfter(LocalDate.now())) {
+            throw new ValueNotAllowedException("checked in", true, "the check-in can't be made before the meetup");
+        }
+
+        if (!pending.contains(enrollmentId)) {
+            append(enrollmentId);
+        }
+    }
+
+    /**
+     * Removes the given enrollment from the in-memory view.
+     *
+     * @param enrollmentId the id of the removed enrollment.
+     */
+    public void forget(long enrollmentId) {
+        meetupDays.remove(enrollmentId);
+    }
+
+    /**
+     * Writes the pending check-ins to the database and compacts the log.
+     *
+     * @throws IOException if the log couldn't be compacted.
+     */
+    @Scheduled(initialDelay = FLUSH_DELAY, fixedDelay = FLUSH_DELAY)
+    @PreDestroy
+    public void flush() throws IOException {
+        List<Long> enrollmentIds = new ArrayList<>(pending);
+
+        if (enrollmentIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int from = 0; from < enrollmentIds.size(); from += FLUSH_BATCH_SIZE) {
+            List<Long> batch = enrollmentIds.subList(from, Math.min(enrollmentIds.size(), from + FLUSH_BATCH_SIZE));
+            Map<Long, List<Long>> batchByMeetup = new HashMap<>();
+            Set<Long> userIds = new HashSet<>();
+
+            // The enrollments removed since their check-in aren't found, so they're left out.
+            for (Object[] meetupDay : enrollmentRepository.findMeetupDaysByIds(batch)) {
+                batchByMeetup.computeIfAbsent((Long) meetupDay[3], meetupId -> new ArrayList<>()).add((Long) meetupDay[0]);
+                userIds.add((Long) meetupDay[2]);
+            }
+
+            batchByMeetup.forEach((meetupId, meetupEnrollmentIds) -> meetupStats.checkIn(meetupId, meetupEnrollmentIds, now));
+            userIds.forEach(changeVersions::userChanged);
+        }
+
+        compactLog(enrollmentIds);
+    }
+
+    /**
+     * Evicts the in-memory view, which only has to hold the enrollments of the meetups of the day.
+     */
+    @Scheduled(cron = VIEW_EVICT_EXPRESSION)
+    public void evictView() {
+        meetupDays.clear();
+    }
+
+    /**
+     * Loads the day of the meetup of the given enrollment for all the enrollments of that meetup.
+     *
+     * @param enrollmentId the enrollment id to be found.
+     * @return the day of the meetup of the given enrollment.
+     * @throws EntityNotFoundException if the enrollment wasn't found.
+     */
+    private LocalDate loadMeetupDays(long enrollmentId) throws EntityNotFoundException {
+        MeetupModel meetup = enrollmentRepository.findMeetupByEnrollmentId(enrollmentId).orElseThrow(() -> new EntityNotFoundException(EnrollmentModel.class, enrollmentId));
+
+        for (Long id : enrollmentRepository.findAllIdsByMeetupId(meetup.getId())) {
+            meetupDays.put(id, meetup.getDay());
+        }
+
+        meetupDays.put(enrollmentId, meetup.getDay());
+        return meetup.getDay();
+    }
+
+    private synchronized void append(long enrollmentId) throws IOException {
+        log.write(ByteBuffer.wrap((enrollmentId + "\n").getBytes(StandardCharsets.US_ASCII)));
+        log.force(false);
+        pending.add(enrollmentId);
+    }
+
+    /**
+     * Replaces the log with one holding only the check-ins that are still pending.
+     *
+     * @param flushed the check-ins written to the database.
+     * @throws IOException if the log couldn't be replaced.
+     */
+    private synchronized void compactLog(List<Long> flushed) throws IOException {
+        pending.removeAll(flushed);
+        Path compactedFile = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+
+        try (FileChannel compacted = FileChannel.open(compactedFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder content = new StringBuilder();
+            pending.forEach(enrollmentId -> content.append(enrollmentId).append('\n'));
+            compacted.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.US_ASCII)));
+            compacted.force(true);
+        }
+
+        log.close();
+        Files.move(compactedFile, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log = openLog();
+    }
+
+    private void replayLog() throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+
+        String content = new String(Files.readAllBytes(logFile), StandardCharsets.US_ASCII);
+        int complete = content.lastIndexOf('\n') + 1;
+
+        for (String line : content.substring(0, complete).split("\n")) {
+            if (line.matches("\\d+")) {
+                pending.add(Long.parseLong(line));
+            }
+        }
+
+        // The last line is incomplete if the application stopped while appending it. It's dropped even if it
+        // looks like an id, since it may be the prefix of another one, and so the next line isn't appended to it.
+        if (complete < content.length()) {
+            try (FileChannel torn = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                torn.truncate(complete);
+                torn.force(true);
+            }
+        }
+    }
+
+    private FileChannel openLog() throws IOException {
+        return FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
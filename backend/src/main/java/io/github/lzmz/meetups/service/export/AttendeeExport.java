@@ -0,0 +1,144 @@
+package io.github.lzmz.meetups.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.lzmz.meetups.dto.response.AttendeeDto;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the attendees of a meetup.
+ * <p>The attendees are streamed from the database and each one is written to the response as soon as it's read,
+ * so the memory used doesn't depend on the size of the meetup. Writes block while the client is slower than the
+ * database, which holds the stream back until the client catches up.</p>
+ */
+@Component
+public class AttendeeExport {
+
+    private static final String CSV_HEADER = "user_id,name,email,checked_in";
+    private static final String CSV_LINE_SEPARATOR = "\r\n";
+    private static final String SPREADSHEET_FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final MeetupRepository meetupRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttendeeExport(MeetupRepository meetupRepository, EnrollmentRepository enrollmentRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.meetupRepository = meetupRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Prepares the export of the attendees of the given meetup, which is written once the response is sent.
+     *
+     * @param meetupId the meetup id whose attendees will be exported.
+     * @param format   the format of the export.
+     * @return the body of the export.
+     * @throws EntityNotFoundException if the given meetup wasn't found.
+     */
+    public StreamingResponseBody export(long meetupId, Format format) throws EntityNotFoundException {
+        if (!meetupRepository.existsById(meetupId)) {
+            throw new EntityNotFoundException(MeetupModel.class, meetupId);
+        }
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            try {
+                // The stream must be read within the transaction that opened it.
+                transactionTemplate.execute(status -> {
+                    write(meetupId, format, writer);
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+        };
+    }
+
+    private void write(long meetupId, Format format, Writer writer) {
+        try (Stream<AttendeeDto> attendees = enrollmentRepository.streamAttendeesByMeetupId(meetupId)) {
+            Iterator<AttendeeDto> iterator = attendees.iterator();
+
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER + CSV_LINE_SEPARATOR);
+            }
+
+            while (iterator.hasNext()) {
+                AttendeeDto attendee = iterator.next();
+
+                if (format == Format.CSV) {
+                    writer.write(attendee.getUserId() + "," + csvField(attendee.getName()) + "," + csvField(attendee.getEmail()) + "," + attendee.isCheckedIn() + CSV_LINE_SEPARATOR);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(attendee));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escapes a CSV field as per RFC 4180, and neutralizes the values that a spreadsheet would run as a formula
+     * by prefixing them with a quote.
+     *
+     * @param value the value of the field.
+     * @return the escaped field.
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+
+        String field = SPREADSHEET_FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+
+        return field;
+    }
+
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
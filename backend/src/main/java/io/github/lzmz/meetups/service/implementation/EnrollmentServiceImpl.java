@@ -2,22 +2,46 @@ package io.github.lzmz.meetups.service.implementation;
 
 import io.github.lzmz.meetups.dto.mapper.EnrollmentMapper;
 import io.github.lzmz.meetups.dto.request.EnrollmentCreationDto;
+import io.github.lzmz.meetups.dto.response.CheckInResultDto;
 import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentResultDto;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
 import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
 import io.github.lzmz.meetups.model.EnrollmentModel;
 import io.github.lzmz.meetups.model.MeetupModel;
 import io.github.lzmz.meetups.model.UserModel;
+import io.github.lzmz.meetups.model.WaitlistEntryModel;
 import io.github.lzmz.meetups.repository.EnrollmentRepository;
 import io.github.lzmz.meetups.repository.MeetupRepository;
 import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
 import io.github.lzmz.meetups.service.EnrollmentService;
+import io.github.lzmz.meetups.service.checkin.CheckInBuffer;
+import io.github.lzmz.meetups.service.reservation.SeatReservations;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class EnrollmentServiceImpl implements EnrollmentService {
@@ -25,46 +49,202 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final MeetupRepository meetupRepository;
     private final UserRepository userRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final SeatReservations seatReservations;
+    private final CheckInBuffer checkInBuffer;
+    private final MeetupStats meetupStats;
+    private final ChangeVersions changeVersions;
     private final EnrollmentMapper enrollmentMapper;
+    private final TransactionTemplate newTransaction;
 
-    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, MeetupRepository meetupRepository, UserRepository userRepository, EnrollmentMapper enrollmentMapper) {
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository, MeetupRepository meetupRepository, UserRepository userRepository, WaitlistEntryRepository waitlistEntryRepository, SeatReservations seatReservations, ObjectProvider<CheckInBuffer> checkInBuffer, MeetupStats meetupStats, ChangeVersions changeVersions, EnrollmentMapper enrollmentMapper, PlatformTransactionManager transactionManager) {
         this.enrollmentRepository = enrollmentRepository;
         this.meetupRepository = meetupRepository;
         this.userRepository = userRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.seatReservations = seatReservations;
+        this.checkInBuffer = checkInBuffer.getIfAvailable();
+        this.meetupStats = meetupStats;
+        this.changeVersions = changeVersions;
         this.enrollmentMapper = enrollmentMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<EnrollmentDto> findAll(Long userId) {
-        List<EnrollmentModel> enrollments = enrollmentRepository.findAllWithMeetupAndUserByUserId(userId);
-        return enrollmentMapper.enrollmentsToEnrollmentDtos(enrollments);
+    public List<EnrollmentDto> findAll(Long userId, boolean archived, Set<String> fields) {
+        return enrollmentRepository.findAllByUserId(userId, archived, fields);
     }
 
     @Override
-    public EnrollmentDto create(EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException {
+    public EnrollmentResultDto create(EnrollmentCreationDto enrollmentCreationDto) throws DuplicateEntityException, EntityNotFoundException {
         EnrollmentModel enrollment = enrollmentMapper.enrollmentCreationDtoToEnrollment(enrollmentCreationDto);
         long meetupId = enrollmentCreationDto.getMeetupId();
         long userId = enrollmentCreationDto.getUserId();
+        boolean enrolled;
+
+        // The meetup and its owner are usually served by the second-level cache.
+        enrollment.setMeetup(meetupRepository.findById(meetupId).orElseThrow(() -> new EntityNotFoundException(MeetupModel.class, meetupId)));
+        enrollment.setUser(userRepository.getOne(userId));
+
+        try {
+            enrolled = seatReservations.enroll(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, meetupId, userId);
+        }
+
+        if (!enrolled) {
+            addToWaitlist(enrollment);
+            return new EnrollmentResultDto(EnrollmentResultDto.Status.WAITLISTED, null);
+        }
+
+        return new EnrollmentResultDto(EnrollmentResultDto.Status.ENROLLED, enrollmentMapper.enrollmentToEnrollmentDto(enrollment));
+    }
+
+    @Override
+    public void cancel(long enrollmentId) throws EntityNotFoundException {
+        EnrollmentModel enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow(() -> new EntityNotFoundException(EnrollmentModel.class, enrollmentId));
+
+        if (!seatReservations.cancel(enrollment)) {
+            throw new EntityNotFoundException(EnrollmentModel.class, enrollmentId);
+        }
+
+        if (checkInBuffer != null) {
+            checkInBuffer.forget(enrollmentId);
+        }
+    }
+
+    @Transactional
+    @Override
+    public List<CheckInResultDto> checkIn(List<Long> enrollmentIds) throws ValueNotAllowedException {
+        if (enrollmentIds.size() > MAX_BULK_CHECK_IN) {
+            throw new ValueNotAllowedException("enrollments", enrollmentIds.size(), "at most " + MAX_BULK_CHECK_IN + " can be checked in at once");
+        }
+
+        Set<Long> ids = new LinkedHashSet<>(enrollmentIds);
+        ids.remove(null);
+        Map<Long, LocalDate> meetupDays = new HashMap<>();
+        Map<Long, Long> userIds = new HashMap<>();
+        Map<Long, Long> meetupIds = new HashMap<>();
+        List<CheckInResultDto> results = new ArrayList<>(ids.size());
+        List<Long> checkedIn = new ArrayList<>(ids.size());
+        LocalDate today = LocalDate.now();
+
+        if (ids.isEmpty()) {
+            return results;
+        }
+
+        for (Object[] meetupDay : enrollmentRepository.findMeetupDaysByIds(ids)) {
+            meetupDays.put((Long) meetupDay[0], (LocalDate) meetupDay[1]);
+            userIds.put((Long) meetupDay[0], (Long) meetupDay[2]);
+            meetupIds.put((Long) meetupDay[0], (Long) meetupDay[3]);
+        }
+
+        for (Long id : ids) {
+            LocalDate day = meetupDays.get(id);
+            CheckInResultDto.Outcome outcome;
+
+            if (day == null) {
+                outcome = CheckInResultDto.Outcome.NOT_FOUND;
+            } else if (day.isAfter(today)) {
+                outcome = CheckInResultDto.Outcome.TOO_EARLY;
+            } else {
+                outcome = CheckInResultDto.Outcome.OK;
+                checkedIn.add(id);
+            }
+
+            results.add(new CheckInResultDto(id, outcome));
+        }
+
+        if (!checkedIn.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            // Each meetup is updated in the transaction of the whole batch, so either all the check-ins are made or none.
+            checkedIn.stream().collect(Collectors.groupingBy(meetupIds::get))
+                    .forEach((meetupId, meetupEnrollmentIds) -> meetupStats.checkIn(meetupId, meetupEnrollmentIds, now));
+            checkedIn.stream().map(userIds::get).distinct().forEach(changeVersions::userChanged);
+        }
+
+        return results;
+    }
+
+    /**
+     * Adds the user of the given enrollment to the waitlist of its meetup, unless it's already there.
+     *
+     * @param enrollment the enrollment that couldn't be inserted.
+     * @throws EntityNotFoundException  if the user doesn't exist.
+     * @throws DuplicateEntityException if the user is already enrolled in the meetup.
+     */
+    private void addToWaitlist(EnrollmentModel enrollment) throws EntityNotFoundException, DuplicateEntityException {
+        long meetupId = enrollment.getMeetup().getId();
+        long userId = enrollment.getUser().getId();
 
         if (enrollmentRepository.existsByMeetupIdAndUserId(meetupId, userId)) {
             throw new DuplicateEntityException(EnrollmentModel.class, Arrays.asList(meetupId, userId), Arrays.asList("meetup", "user"));
         }
 
-        enrollment.setMeetup(meetupRepository.findById(meetupId).orElseThrow(() -> new EntityNotFoundException(MeetupModel.class, meetupId)));
-        enrollment.setUser(userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(UserModel.class, userId)));
-        enrollmentRepository.save(enrollment);
-        return enrollmentMapper.enrollmentToEnrollmentDto(enrollment);
+        // Checked first, since a failed insertion dooms the transaction of an accepted invitation.
+        if (waitlistEntryRepository.existsByMeetupIdAndUserId(meetupId, userId)) {
+            return;
+        }
+
+        WaitlistEntryModel entry = new WaitlistEntryModel();
+        entry.setMeetup(enrollment.getMeetup());
+        entry.setUser(enrollment.getUser());
+
+        try {
+            waitlistEntryRepository.save(entry);
+        } catch (DataIntegrityViolationException e) {
+            if (!newTransaction.execute(status -> userRepository.existsById(userId))) {
+                throw new EntityNotFoundException(UserModel.class, userId);
+            }
+            // Otherwise the user was already in the waitlist.
+        }
+    }
+
+    /**
+     * Finds out which constraint made the insertion of an enrollment fail. Only runs on the unhappy path,
+     * the happy one relies on the foreign key and unique constraints of the enrollment table. The constraints
+     * are checked in new transactions, since the session of the failed insertion can't be used anymore.
+     *
+     * @param e        the exception thrown by the insertion.
+     * @param meetupId the meetup id of the enrollment.
+     * @param userId   the user id of the enrollment.
+     * @return the original exception when none of the known constraints was violated.
+     * @throws EntityNotFoundException  if the user doesn't exist.
+     * @throws DuplicateEntityException if the user is already enrolled in the meetup.
+     */
+    private DataIntegrityViolationException translateIntegrityViolation(DataIntegrityViolationException e, long meetupId, long userId) throws EntityNotFoundException, DuplicateEntityException {
+        if (!newTransaction.execute(status -> userRepository.existsById(userId))) {
+            throw new EntityNotFoundException(UserModel.class, userId);
+        }
+
+        if (newTransaction.execute(status -> enrollmentRepository.existsByMeetupIdAndUserId(meetupId, userId))) {
+            throw new DuplicateEntityException(EnrollmentModel.class, Arrays.asList(meetupId, userId), Arrays.asList("meetup", "user"));
+        }
+
+        return e;
     }
 
     @Override
     public void checkIn(long enrollmentId) throws ValueNotAllowedException, EntityNotFoundException {
+        if (checkInBuffer != null) {
+            try {
+                checkInBuffer.checkIn(enrollmentId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return;
+        }
+
         EnrollmentModel enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow(() -> new EntityNotFoundException(EnrollmentModel.class, enrollmentId));
 
         if (enrollment.getMeetup().getDay().isAfter(LocalDate.now())) {
             throw new ValueNotAllowedException("checked in", true, "the check-in can't be made before the meetup");
         }
 
-        enrollment.setCheckedIn(true);
-        enrollmentRepository.save(enrollment);
+        meetupStats.checkIn(enrollment.getMeetup().getId(), Collections.singletonList(enrollmentId), LocalDateTime.now());
+        changeVersions.userChanged(enrollment.getUser().getId());
     }
 }
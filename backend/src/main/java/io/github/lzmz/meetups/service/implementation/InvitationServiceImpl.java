@@ -1,10 +1,12 @@
 package io.github.lzmz.meetups.service.implementation;
 
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
 import io.github.lzmz.meetups.dto.mapper.InvitationMapper;
 import io.github.lzmz.meetups.dto.request.EnrollmentCreationDto;
 import io.github.lzmz.meetups.dto.request.InvitationCreationDto;
 import io.github.lzmz.meetups.dto.request.InvitationStatusDto;
 import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.exceptions.CustomException;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
 import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
@@ -16,12 +18,21 @@ import io.github.lzmz.meetups.repository.MeetupRepository;
 import io.github.lzmz.meetups.repository.UserRepository;
 import io.github.lzmz.meetups.service.EnrollmentService;
 import io.github.lzmz.meetups.service.InvitationService;
-import org.springframework.data.domain.Example;
+import io.github.lzmz.meetups.service.inbox.InvitationInbox;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class InvitationServiceImpl implements InvitationService {
@@ -30,50 +41,66 @@ public class InvitationServiceImpl implements InvitationService {
     private final MeetupRepository meetupRepository;
     private final UserRepository userRepository;
     private final EnrollmentService enrollmentService;
+    private final InvitationInbox invitationInbox;
+    private final MeetupStats meetupStats;
+    private final ChangeVersions changeVersions;
     private final InvitationMapper invitationMapper;
+    private final TransactionTemplate newTransaction;
 
-    public InvitationServiceImpl(InvitationRepository invitationRepository, MeetupRepository meetupRepository, UserRepository userRepository, EnrollmentService enrollmentService, InvitationMapper invitationMapper) {
+    public InvitationServiceImpl(InvitationRepository invitationRepository, MeetupRepository meetupRepository, UserRepository userRepository, EnrollmentService enrollmentService, InvitationInbox invitationInbox, MeetupStats meetupStats, ChangeVersions changeVersions, InvitationMapper invitationMapper, PlatformTransactionManager transactionManager) {
         this.invitationRepository = invitationRepository;
         this.meetupRepository = meetupRepository;
         this.userRepository = userRepository;
         this.enrollmentService = enrollmentService;
+        this.invitationInbox = invitationInbox;
+        this.meetupStats = meetupStats;
+        this.changeVersions = changeVersions;
         this.invitationMapper = invitationMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<InvitationDto> findAll(Long meetupId, Long userId, InvitationModel.Status status) {
-        MeetupModel meetup = new MeetupModel();
-        meetup.setId(meetupId);
-
-        UserModel user = new UserModel();
-        user.setId(userId);
-
-        InvitationModel invitationExample = new InvitationModel();
-        invitationExample.setMeetup(meetup);
-        invitationExample.setUser(user);
-        invitationExample.setStatus(status);
+    public List<InvitationDto> findAll(Long meetupId, Long userId, InvitationModel.Status status, Long after, int size, boolean archived, Set<String> fields) {
+        return invitationRepository.findPage(meetupId, userId, status, after, KeysetPagination.clampSize(size), archived, fields);
+    }
 
-        List<InvitationModel> invitations = invitationRepository.findAll(Example.of(invitationExample));
-        return invitationMapper.invitationsToInvitationDtos(invitations);
+    @Transactional(readOnly = true)
+    @Override
+    public long count(Long meetupId, Long userId, InvitationModel.Status status, boolean archived) {
+        return invitationRepository.countFiltered(meetupId, userId, status, archived);
     }
 
+    @Transactional(rollbackFor = CustomException.class)
     @Override
     public InvitationDto create(InvitationCreationDto invitationCreationDto) throws DuplicateEntityException, EntityNotFoundException {
         InvitationModel invitation = invitationMapper.invitationCreationDtoToInvitation(invitationCreationDto);
         long meetupId = invitationCreationDto.getMeetupId();
         long userId = invitationCreationDto.getUserId();
 
-        if (invitationRepository.existsByMeetupIdAndUserId(meetupId, userId)) {
-            throw new DuplicateEntityException(MeetupModel.class, Arrays.asList(meetupId, userId), Arrays.asList("meetup", "user"));
+        invitation.setMeetup(meetupRepository.getOne(meetupId));
+        invitation.setUser(userRepository.getOne(userId));
+        invitation.setStatus(InvitationModel.Status.PENDING);
+
+        try {
+            invitationRepository.saveAndFlush(invitation);
+        } catch (DataIntegrityViolationException e) {
+            throw translateIntegrityViolation(e, meetupId, userId);
         }
 
+        meetupStats.invitationSent(meetupId);
+
+        // The meetup and its owner are usually served by the second-level cache.
         invitation.setMeetup(meetupRepository.findById(meetupId).orElseThrow(() -> new EntityNotFoundException(MeetupModel.class, meetupId)));
-        invitation.setUser(userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(UserModel.class, userId)));
-        invitation.setStatus(InvitationModel.Status.PENDING);
-        invitationRepository.save(invitation);
-        return invitationMapper.invitationToInvitationDto(invitation);
+        InvitationDto invitationDto = invitationMapper.invitationToInvitationDto(invitation);
+        invitationInbox.publish(invitationDto);
+        changeVersions.userChanged(userId);
+        changeVersions.meetupChanged(meetupId);
+        return invitationDto;
     }
 
+    @Transactional(rollbackFor = CustomException.class)
     @Override
     public List<InvitationDto> create(Long meetupId, List<Long> userIds) throws DuplicateEntityException, EntityNotFoundException {
         List<InvitationDto> invitationDtos = new ArrayList<>();
@@ -88,6 +115,7 @@ public class InvitationServiceImpl implements InvitationService {
         return invitationDtos;
     }
 
+    @Transactional(rollbackFor = CustomException.class)
     @Override
     public void changeStatus(long invitationId, InvitationStatusDto invitationStatusDto) throws EntityNotFoundException, DuplicateEntityException, ValueNotAllowedException {
         if (invitationStatusDto.getStatus() == null) {
@@ -95,19 +123,55 @@ public class InvitationServiceImpl implements InvitationService {
         }
 
         InvitationModel invitation = invitationRepository.findById(invitationId).orElseThrow(() -> new EntityNotFoundException(InvitationModel.class, invitationId));
+        InvitationModel.Status previous = invitation.getStatus();
+        InvitationModel.Status status = invitationStatusDto.getStatus();
+
+        if (previous == InvitationModel.Status.ACCEPTED) {
+            throw new ValueNotAllowedException("status", status, "the invitation was already accepted");
+        }
 
-        if (invitation.getStatus() == InvitationModel.Status.ACCEPTED) {
-            throw new ValueNotAllowedException("status", invitationStatusDto.getStatus(), "the invitation was already accepted");
+        // The counters are moved from the status read, so the change is only made if no other request changed it meanwhile.
+        if (invitationRepository.changeStatus(invitationId, previous, status, LocalDateTime.now()) == 0) {
+            throw new ValueNotAllowedException("status", status, "the invitation was changed by another request");
         }
 
-        invitation.setStatus(invitationStatusDto.getStatus());
-        if (invitation.getStatus() == InvitationModel.Status.ACCEPTED) {
+        if (status == InvitationModel.Status.ACCEPTED) {
             EnrollmentCreationDto enrollmentCreationDto = new EnrollmentCreationDto();
             enrollmentCreationDto.setMeetupId(invitation.getMeetup().getId());
             enrollmentCreationDto.setUserId(invitation.getUser().getId());
             this.enrollmentService.create(enrollmentCreationDto);
         }
 
-        this.invitationRepository.save(invitation);
+        meetupStats.invitationStatusChanged(invitation.getMeetup().getId(), previous, status);
+        changeVersions.userChanged(invitation.getUser().getId());
+        changeVersions.meetupChanged(invitation.getMeetup().getId());
+    }
+
+    /**
+     * Finds out which constraint made the insertion of an invitation fail. Only runs on the unhappy path,
+     * the happy one relies on the foreign key and unique constraints of the invitation table. The constraints
+     * are checked in new transactions, since the session of the failed insertion can't be used anymore.
+     *
+     * @param e        the exception thrown by the insertion.
+     * @param meetupId the meetup id of the invitation.
+     * @param userId   the user id of the invitation.
+     * @return the original exception when none of the known constraints was violated.
+     * @throws EntityNotFoundException  if the meetup or the user doesn't exist.
+     * @throws DuplicateEntityException if the user was already invited to the meetup.
+     */
+    private DataIntegrityViolationException translateIntegrityViolation(DataIntegrityViolationException e, long meetupId, long userId) throws EntityNotFoundException, DuplicateEntityException {
+        if (!newTransaction.execute(status -> meetupRepository.existsById(meetupId))) {
+            throw new EntityNotFoundException(MeetupModel.class, meetupId);
+        }
+
+        if (!newTransaction.execute(status -> userRepository.existsById(userId))) {
+            throw new EntityNotFoundException(UserModel.class, userId);
+        }
+
+        if (newTransaction.execute(status -> invitationRepository.existsByMeetupIdAndUserId(meetupId, userId))) {
+            throw new DuplicateEntityException(MeetupModel.class, Arrays.asList(meetupId, userId), Arrays.asList("meetup", "user"));
+        }
+
+        return e;
     }
 }
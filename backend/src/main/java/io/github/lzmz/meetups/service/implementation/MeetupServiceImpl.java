@@ -3,33 +3,64 @@ package io.github.lzmz.meetups.service.implementation;
 import io.github.lzmz.meetups.dto.mapper.MeetupMapper;
 import io.github.lzmz.meetups.dto.request.MeetupCreationDto;
 import io.github.lzmz.meetups.dto.response.MeetupAdminDto;
+import io.github.lzmz.meetups.dto.response.MeetupStatsDto;
 import io.github.lzmz.meetups.dto.response.MeetupUserDto;
+import io.github.lzmz.meetups.dto.response.OrganizerStatsDto;
 import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
 import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.model.MeetupArchiveModel;
 import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.MeetupSeatsModel;
+import io.github.lzmz.meetups.model.MeetupStatsModel;
 import io.github.lzmz.meetups.model.UserModel;
+import io.github.lzmz.meetups.repository.MeetupArchiveRepository;
 import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
 import io.github.lzmz.meetups.repository.UserRepository;
 import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.archive.MeetupArchive;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
 public class MeetupServiceImpl implements MeetupService {
 
+    /**
+     * First and last days that fit in the day columns, used as the bounds of the ranges without them.
+     */
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
     private final MeetupRepository meetupRepository;
+    private final MeetupSeatsRepository meetupSeatsRepository;
+    private final MeetupStatsRepository meetupStatsRepository;
+    private final MeetupArchiveRepository meetupArchiveRepository;
     private final UserRepository userRepository;
+    private final ChangeVersions changeVersions;
+    private final MeetupArchive meetupArchive;
     private final MeetupMapper meetupMapper;
 
-    public MeetupServiceImpl(MeetupRepository meetupRepository, UserRepository userRepository, MeetupMapper meetupMapper) {
+    public MeetupServiceImpl(MeetupRepository meetupRepository, MeetupSeatsRepository meetupSeatsRepository, MeetupStatsRepository meetupStatsRepository, MeetupArchiveRepository meetupArchiveRepository, UserRepository userRepository, ChangeVersions changeVersions, MeetupArchive meetupArchive, MeetupMapper meetupMapper) {
         this.meetupRepository = meetupRepository;
+        this.meetupSeatsRepository = meetupSeatsRepository;
+        this.meetupStatsRepository = meetupStatsRepository;
+        this.meetupArchiveRepository = meetupArchiveRepository;
         this.userRepository = userRepository;
+        this.changeVersions = changeVersions;
+        this.meetupArchive = meetupArchive;
         this.meetupMapper = meetupMapper;
     }
 
+    @Transactional
     @Override
     public MeetupAdminDto create(MeetupCreationDto meetupCreationDto) throws DuplicateEntityException, EntityNotFoundException {
         MeetupModel meetup = meetupMapper.meetupCreationDtoToMeetup(meetupCreationDto);
@@ -42,6 +73,14 @@ public class MeetupServiceImpl implements MeetupService {
 
         meetup.setOwner(userRepository.findById(ownerId).orElseThrow(() -> new EntityNotFoundException(UserModel.class, ownerId)));
         meetupRepository.save(meetup);
+        meetupStatsRepository.save(new MeetupStatsModel(meetup.getId()));
+
+        if (meetup.getCapacity() != null) {
+            meetupSeatsRepository.save(new MeetupSeatsModel(meetup.getId()));
+        }
+
+        changeVersions.userChanged(ownerId);
+
         return meetupMapper.meetupToMeetupAdminDto(meetup);
     }
 
@@ -51,13 +90,7 @@ public class MeetupServiceImpl implements MeetupService {
         return calculateBeerCasesNeeded(meetup.getTemperature(), meetup.getEnrolledUsers().size());
     }
 
-    /**
-     * Calculates the beer cases needed based on temperature and number of participants.
-     *
-     * @param temperature  the temperature that will be used to calculate the required beer cases.
-     * @param participants the number of participants that will be used to calculate the required beer cases.
-     * @return the beer cases needed.
-     */
+    @Override
     public int calculateBeerCasesNeeded(double temperature, int participants) {
         double beersNeeded;
 
@@ -78,16 +111,108 @@ public class MeetupServiceImpl implements MeetupService {
         return meetup.getTemperature();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<MeetupAdminDto> getCreatedMeetups(long ownerId) {
-        List<MeetupModel> meetups = meetupRepository.findAllWithEnrolledUsersByOwnerId(ownerId);
+    public List<MeetupAdminDto> getCreatedMeetups(long ownerId, LocalDate from, LocalDate to) throws ValueNotAllowedException {
+        checkRange(from, to);
+
+        List<MeetupModel> meetups = meetupRepository.findAllWithEnrolledUsersByOwnerIdAndDayBetween(ownerId, orFirstDay(from), orLastDay(to));
         meetups.forEach(meetup -> meetup.setBeerCasesNeeded(calculateBeerCasesNeeded(meetup.getTemperature(), meetup.getEnrolledUsers().size())));
-        return meetupMapper.meetupsToMeetupAdminDtos(meetups);
+        List<MeetupAdminDto> meetupDtos = meetupMapper.meetupsToMeetupAdminDtos(meetups);
+
+        if (isArchiveNeeded(from)) {
+            List<MeetupArchiveModel> archivedMeetups = meetupArchiveRepository.findAllWithOwnerByOwnerIdAndDayBetween(ownerId, orFirstDay(from), orLastDay(to));
+            archivedMeetups.forEach(meetup -> meetup.setBeerCasesNeeded(calculateBeerCasesNeeded(meetup.getTemperature(), meetup.getEnrolled())));
+            meetupDtos.addAll(meetupMapper.meetupArchivesToMeetupAdminDtos(archivedMeetups));
+            meetupDtos.sort(Comparator.comparing(MeetupAdminDto::getDay));
+        }
+
+        return meetupDtos;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<MeetupUserDto> getEnrolledMeetups(long userId) {
-        List<MeetupModel> meetups = meetupRepository.findAllByEnrolledUsersUserId(userId);
-        return meetupMapper.meetupsToMeetupUserDtos(meetups);
+    public List<MeetupUserDto> getEnrolledMeetups(long userId, LocalDate from, LocalDate to) throws ValueNotAllowedException {
+        checkRange(from, to);
+
+        List<MeetupUserDto> meetups = meetupRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(userId, orFirstDay(from), orLastDay(to));
+
+        if (isArchiveNeeded(from)) {
+            meetups.addAll(meetupArchiveRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(userId, orFirstDay(from), orLastDay(to)));
+            meetups.sort(Comparator.comparing(MeetupUserDto::getDay));
+        }
+
+        return meetups;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public OrganizerStatsDto getStats(long ownerId, LocalDate from, LocalDate to) throws ValueNotAllowedException {
+        checkRange(from, to);
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_STATS_DAYS) {
+            throw new ValueNotAllowedException("to", to, "the range can't be longer than " + MAX_STATS_DAYS + " days");
+        }
+
+        List<MeetupStatsDto> meetups = meetupStatsRepository.findAllDtosByOwnerIdAndDayBetween(ownerId, from, to);
+
+        if (isArchiveNeeded(from)) {
+            meetups.addAll(meetupArchiveRepository.findAllStatsDtosByOwnerIdAndDayBetween(ownerId, from, to));
+            meetups.sort(Comparator.comparing(MeetupStatsDto::getDay));
+        }
+        OrganizerStatsDto stats = new OrganizerStatsDto();
+        LocalDate today = LocalDate.now();
+        int heldEnrolled = 0;
+
+        for (MeetupStatsDto meetup : meetups) {
+            meetup.setBeerCasesNeeded(calculateBeerCasesNeeded(meetup.getTemperature(), meetup.getEnrolled()));
+
+            if (!meetup.getDay().isAfter(today)) {
+                meetup.setNoShows(meetup.getEnrolled() - meetup.getCheckedIn());
+                heldEnrolled += meetup.getEnrolled();
+            }
+
+            stats.setInvitationsSent(stats.getInvitationsSent() + meetup.getInvitationsSent());
+            stats.setInvitationsAccepted(stats.getInvitationsAccepted() + meetup.getInvitationsAccepted());
+            stats.setInvitationsDeclined(stats.getInvitationsDeclined() + meetup.getInvitationsDeclined());
+            stats.setEnrolled(stats.getEnrolled() + meetup.getEnrolled());
+            stats.setCheckedIn(stats.getCheckedIn() + meetup.getCheckedIn());
+            stats.setNoShows(stats.getNoShows() + meetup.getNoShows());
+            stats.setBeerCasesNeeded(stats.getBeerCasesNeeded() + meetup.getBeerCasesNeeded());
+        }
+
+        stats.setFrom(from);
+        stats.setTo(to);
+        stats.setMeetups(meetups);
+        stats.setAcceptanceRate(rate(stats.getInvitationsAccepted(), stats.getInvitationsSent()));
+        // Only the meetups already held had the chance to be checked in.
+        stats.setCheckInRate(rate(stats.getCheckedIn(), heldEnrolled));
+        return stats;
+    }
+
+    /**
+     * @param from the first day of the range, inclusive, or {@code null} for no first day.
+     * @return whether the archived meetups may be within a range starting at the given day.
+     */
+    private boolean isArchiveNeeded(LocalDate from) {
+        return from == null || from.isBefore(meetupArchive.getHorizon());
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) throws ValueNotAllowedException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValueNotAllowedException("from", from, "it must not be after " + to);
+        }
+    }
+
+    private static LocalDate orFirstDay(LocalDate from) {
+        return from == null ? FIRST_DAY : from;
+    }
+
+    private static LocalDate orLastDay(LocalDate to) {
+        return to == null ? LAST_DAY : to;
+    }
+
+    private static double rate(int count, int total) {
+        return total == 0 ? 0 : (double) count / total;
     }
 }
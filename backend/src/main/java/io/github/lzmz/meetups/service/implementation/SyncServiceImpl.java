@@ -0,0 +1,68 @@
+package io.github.lzmz.meetups.service.implementation;
+
+import io.github.lzmz.meetups.dto.response.SyncDto;
+import io.github.lzmz.meetups.model.SyncDeletionModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.SyncDeletionRepository;
+import io.github.lzmz.meetups.service.SyncService;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    private static final LocalDateTime FIRST_SYNC = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final InvitationRepository invitationRepository;
+    private final MeetupRepository meetupRepository;
+    private final SyncDeletionRepository syncDeletionRepository;
+    private final SyncDeletions syncDeletions;
+
+    public SyncServiceImpl(EnrollmentRepository enrollmentRepository, InvitationRepository invitationRepository, MeetupRepository meetupRepository, SyncDeletionRepository syncDeletionRepository, SyncDeletions syncDeletions) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.invitationRepository = invitationRepository;
+        this.meetupRepository = meetupRepository;
+        this.syncDeletionRepository = syncDeletionRepository;
+        this.syncDeletions = syncDeletions;
+    }
+
+    /**
+     * Not read-only, so that the sync reads from the primary: the watermark is taken from the clock of the
+     * application, and a replica lagging behind it by more than the overlap would miss rows for good.
+     */
+    @Override
+    @Transactional
+    public SyncDto sync(long userId, LocalDateTime since) {
+        LocalDateTime watermark = LocalDateTime.now().minus(WATERMARK_OVERLAP);
+        boolean reset = since == null || since.isBefore(syncDeletions.getHorizon());
+        LocalDateTime from = reset ? FIRST_SYNC : since;
+        List<Long> deletedEnrollments = new ArrayList<>();
+        List<Long> deletedInvitations = new ArrayList<>();
+        List<Long> unenrolledMeetups = new ArrayList<>();
+
+        if (!reset) {
+            for (SyncDeletionModel deletion : syncDeletionRepository.findAllByUserIdDeletedSince(userId, from)) {
+                if (deletion.getType() == SyncDeletionModel.Type.ENROLLMENT) {
+                    deletedEnrollments.add(deletion.getEntityId());
+                    unenrolledMeetups.add(deletion.getMeetupId());
+                } else {
+                    deletedInvitations.add(deletion.getEntityId());
+                }
+            }
+        }
+
+        return new SyncDto(watermark, reset,
+                enrollmentRepository.findAllDtosByUserIdUpdatedSince(userId, from),
+                invitationRepository.findAllDtosByUserIdUpdatedSince(userId, from),
+                meetupRepository.findAllUserDtosByEnrolledUserIdUpdatedSince(userId, from),
+                deletedEnrollments, deletedInvitations, unenrolledMeetups);
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.lzmz.meetups.service.implementation;
 
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
 import io.github.lzmz.meetups.dto.mapper.UserMapper;
 import io.github.lzmz.meetups.dto.request.SignUpDto;
 import io.github.lzmz.meetups.dto.response.UserDto;
@@ -8,9 +9,13 @@ import io.github.lzmz.meetups.model.UserModel;
 import io.github.lzmz.meetups.repository.UserRepository;
 import io.github.lzmz.meetups.security.Role;
 import io.github.lzmz.meetups.service.UserService;
-import org.springframework.data.domain.Example;
+import io.github.lzmz.meetups.service.index.UserPrefixIndex;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,19 +25,33 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final UserPrefixIndex userPrefixIndex;
+    private final ChangeVersions changeVersions;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, UserMapper userMapper) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, UserMapper userMapper, UserPrefixIndex userPrefixIndex, ChangeVersions changeVersions) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
+        this.userPrefixIndex = userPrefixIndex;
+        this.changeVersions = changeVersions;
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<UserDto> findAll(Role role) {
-        UserModel userExample = new UserModel();
-        userExample.setRole(role);
-        List<UserModel> users = userRepository.findAll(Example.of(userExample));
-        return userMapper.usersToUserDtos(users);
+    public List<UserDto> findAll(Role role, Long after, int size) {
+        long afterId = after == null ? 0 : after;
+        Pageable page = PageRequest.of(0, KeysetPagination.clampSize(size));
+
+        if (role == null) {
+            return userRepository.findPage(afterId, page);
+        }
+
+        return userRepository.findPageByRole(role, afterId, page);
+    }
+
+    @Override
+    public List<UserDto> search(String prefix, Role role, int limit) {
+        return userPrefixIndex.search(prefix, role, limit);
     }
 
     @Override
@@ -51,6 +70,9 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(signUpDto.getPassword()));
         userRepository.save(user);
-        return userMapper.userToUserDto(user);
+        UserDto userDto = userMapper.userToUserDto(user);
+        userPrefixIndex.add(userDto);
+        changeVersions.directoryChanged();
+        return userDto;
     }
 }
@@ -8,6 +8,7 @@ import io.github.lzmz.meetups.endpoint.WeatherConsumerEndpoint;
 import io.github.lzmz.meetups.service.WeatherService;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -15,6 +16,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import java.util.List;
 
 @Service
+@Lazy(false)
 public class WeatherServiceImpl implements WeatherService {
 
     private final WebClient webClient;
@@ -0,0 +1,139 @@
+package io.github.lzmz.meetups.service.inbox;
+
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
+import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the users waiting for new invitations, used to answer long-polling requests.
+ * <p>Each request carries the id of the last invitation seen by the client. The invitations it missed are
+ * returned right away, otherwise the request waits until an invitation is created for the user or the wait
+ * times out. Only the invitations created through this instance wake up the waiting requests, the ones
+ * created through other instances are picked up by the next request of the client.</p>
+ */
+@Component
+public class InvitationInbox {
+
+    /**
+     * Time in milliseconds after which a waiting request is answered with an empty list.
+     */
+    public static final long WAIT_TIMEOUT = 25_000;
+
+    /**
+     * Maximum number of waiting requests of this instance.
+     */
+    public static final int MAX_WAITERS = 5_000;
+
+    private final InvitationRepository invitationRepository;
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    public InvitationInbox(InvitationRepository invitationRepository) {
+        this.invitationRepository = invitationRepository;
+    }
+
+    /**
+     * Waits for the invitations of the given user created after the given one.
+     *
+     * @param userId the user whose invitations will be waited for.
+     * @param after  the id of the last invitation seen by the user.
+     * @return the invitations created after the given one, or an empty list if none was created in time.
+     * @throws LimitExceededException if this instance already has the maximum number of waiting requests.
+     */
+    public DeferredResult<List<InvitationDto>> waitForInvitations(long userId, long after) throws LimitExceededException {
+        if (waiterCount.incrementAndGet() > MAX_WAITERS) {
+            waiterCount.decrementAndGet();
+            throw new LimitExceededException("invitation inbox waiters", MAX_WAITERS);
+        }
+
+        Waiter waiter = new Waiter(after, new DeferredResult<>(WAIT_TIMEOUT, Collections.emptyList()));
+        waiter.result.onCompletion(() -> remove(userId, waiter));
+        waiters.compute(userId, (id, userWaiters) -> {
+            Set<Waiter> addedTo = userWaiters == null ? ConcurrentHashMap.newKeySet() : userWaiters;
+            addedTo.add(waiter);
+            return addedTo;
+        });
+
+        // Registered before looking for missed invitations, so one created meanwhile is either found or published.
+        List<InvitationDto> missed = invitationRepository.findPage(null, userId, null, after, KeysetPagination.DEFAULT_SIZE, false, null);
+
+        if (!missed.isEmpty()) {
+            complete(userId, waiter, missed);
+        }
+
+        return waiter.result;
+    }
+
+    /**
+     * Hands a new invitation over to the requests waiting for the invitations of its user once the current
+     * transaction is committed.
+     *
+     * @param invitation the created invitation.
+     */
+    public void publish(InvitationDto invitation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            handOver(invitation);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                handOver(invitation);
+            }
+        });
+    }
+
+    private void handOver(InvitationDto invitation) {
+        Set<Waiter> userWaiters = waiters.get(invitation.getUserId());
+
+        if (userWaiters == null) {
+            return;
+        }
+
+        for (Waiter waiter : userWaiters) {
+            if (invitation.getId() > waiter.after) {
+                complete(invitation.getUserId(), waiter, Collections.singletonList(invitation));
+            }
+        }
+    }
+
+    private void complete(long userId, Waiter waiter, List<InvitationDto> invitations) {
+        if (waiter.result.setResult(invitations)) {
+            remove(userId, waiter);
+        }
+    }
+
+    private void remove(long userId, Waiter waiter) {
+        waiters.computeIfPresent(userId, (id, userWaiters) -> {
+            if (userWaiters.remove(waiter)) {
+                waiterCount.decrementAndGet();
+            }
+
+            return userWaiters.isEmpty() ? null : userWaiters;
+        });
+    }
+
+    private static final class Waiter {
+
+        private final long after;
+        private final DeferredResult<List<InvitationDto>> result;
+
+        private Waiter(long after, DeferredResult<List<InvitationDto>> result) {
+            this.after = after;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.lzmz.meetups.service.index;
+
+import io.github.lzmz.meetups.dto.response.UserDto;
+import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.security.Role;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory sorted index of the users by name, name words and email, used to answer prefix searches
+ * without querying the database.
+ * <p>Users are only ever added, so the index is kept up to date incrementally: new sign-ups are added
+ * right away and the users created by other instances are picked up by a periodic refresh of the users
+ * created since the previous refresh started. The ids and creation times are assigned before the users
+ * are committed, so a user committed late may have a lower id or an earlier creation time than users
+ * already indexed. The refresh therefore re-reads the users created within {@link #REFRESH_OVERLAP} before
+ * the previous refresh, and the local sign-ups don't move its watermark.</p>
+ */
+@Component
+@Lazy(false)
+public class UserPrefixIndex {
+
+    /**
+     * Search limit used when none is requested.
+     */
+    public static final String DEFAULT_LIMIT_VALUE = "10";
+
+    /**
+     * Largest search limit that can be requested.
+     */
+    public static final int MAX_LIMIT = 50;
+
+    /**
+     * Delay in milliseconds between two refreshes of the index.
+     */
+    public static final long REFRESH_DELAY = 60_000;
+
+    /**
+     * Time before the start of the previous refresh from which the users are read again, which covers the
+     * longest sign-up transaction and the clock skew between instances.
+     */
+    public static final Duration REFRESH_OVERLAP = Duration.ofMinutes(5);
+
+    private static final int REFRESH_BATCH_SIZE = 1_000;
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final char KEY_UPPER_BOUND = Character.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final NavigableMap<String, UserDto> entries = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime refreshedAt;
+
+    public UserPrefixIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Indexes the users created since the previous refresh, or all the users on the first one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelay = REFRESH_DELAY, fixedDelay = REFRESH_DELAY)
+    public synchronized void refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = refreshedAt == null ? null : refreshedAt.minus(REFRESH_OVERLAP);
+        long afterId = 0;
+        List<UserDto> users;
+
+        do {
+            PageRequest page = PageRequest.of(0, REFRESH_BATCH_SIZE);
+            users = since == null ? userRepository.findPage(afterId, page) : userRepository.findPageCreatedSince(since, afterId, page);
+            users.forEach(this::add);
+
+            if (!users.isEmpty()) {
+                afterId = users.get(users.size() - 1).getId();
+            }
+        } while (users.size() == REFRESH_BATCH_SIZE);
+
+        refreshedAt = startedAt;
+    }
+
+    /**
+     * Adds a user to the index.
+     *
+     * @param user the user to add.
+     */
+    public void add(UserDto user) {
+        UserDto entry = new UserDto(user.getId(), user.getName(), user.getEmail(), user.getRole());
+        Set<String> terms = new HashSet<>();
+        terms.add(normalize(user.getName()));
+        terms.add(normalize(user.getEmail()));
+
+        for (String word : normalize(user.getName()).split("\\s+")) {
+            terms.add(word);
+        }
+
+        terms.forEach(term -> entries.put(term + KEY_SEPARATOR + entry.getId(), entry));
+    }
+
+    /**
+     * Searches the users with a name, name word or email starting with the given prefix.
+     *
+     * @param prefix the prefix to search, case insensitive.
+     * @param role   the role that will be filtered, or {@code null}.
+     * @param limit  the maximum number of users to retrieve.
+     * @return the users matching the given prefix, ordered by the matched term.
+     */
+    public List<UserDto> search(String prefix, Role role, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        int maxResults = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<UserDto> users = new ArrayList<>(maxResults);
+        Set<Long> found = new HashSet<>();
+
+        if (normalizedPrefix.isEmpty()) {
+            return users;
+        }
+
+        for (UserDto user : entries.subMap(normalizedPrefix, normalizedPrefix + KEY_UPPER_BOUND).values()) {
+            if ((role == null || role == user.getRole()) && found.add(user.getId())) {
+                users.add(new UserDto(user.getId(), user.getName(), user.getEmail(), user.getRole()));
+
+                if (users.size() == maxResults) {
+                    break;
+                }
+            }
+        }
+
+        return users;
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+}
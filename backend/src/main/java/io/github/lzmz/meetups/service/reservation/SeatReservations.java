@@ -0,0 +1,188 @@
+package io.github.lzmz.meetups.service.reservation;
+
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.WaitlistEntryModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes and gives back the seats of the meetups with a capacity.
+ * <p>The database counter of enrolled users is the source of truth: a seat is only taken by a conditional
+ * update that fails once the meetup is full, so no row is locked before the update itself. In front of it,
+ * an in-memory counter of available seats per meetup turns away the requests for a full meetup without
+ * reaching the database. The in-memory counters are dropped periodically, so the seats taken or given back
+ * by other instances are picked up when they are reloaded.</p>
+ */
+@Component
+@Lazy(false)
+public class SeatReservations {
+
+    /**
+     * Delay in milliseconds between two reloads of the in-memory counters.
+     */
+    public static final long REFRESH_DELAY = 10_000;
+
+    private static final int PROMOTION_BATCH_SIZE = 10;
+
+    private final MeetupSeatsRepository meetupSeatsRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final MeetupStats meetupStats;
+    private final SyncDeletions syncDeletions;
+    private final ChangeVersions changeVersions;
+    private final Map<Long, AtomicInteger> availableSeats = new ConcurrentHashMap<>();
+
+    public SeatReservations(MeetupSeatsRepository meetupSeatsRepository, EnrollmentRepository enrollmentRepository, WaitlistEntryRepository waitlistEntryRepository, MeetupStats meetupStats, SyncDeletions syncDeletions, ChangeVersions changeVersions) {
+        this.meetupSeatsRepository = meetupSeatsRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.meetupStats = meetupStats;
+        this.syncDeletions = syncDeletions;
+        this.changeVersions = changeVersions;
+    }
+
+    /**
+     * Drops the in-memory counters, so they are reloaded from the database on their next use.
+     */
+    @Scheduled(initialDelay = REFRESH_DELAY, fixedDelay = REFRESH_DELAY)
+    public void refresh() {
+        availableSeats.clear();
+    }
+
+    /**
+     * Takes a seat of the meetup of the given enrollment and inserts the enrollment.
+     *
+     * @param enrollment the enrollment to insert.
+     * @return {@code true} if the enrollment was inserted, {@code false} if its meetup is full.
+     */
+    @Transactional
+    public boolean enroll(EnrollmentModel enrollment) {
+        MeetupModel meetup = enrollment.getMeetup();
+        Integer capacity = meetup.getCapacity();
+
+        if (capacity == null) {
+            enrollmentRepository.saveAndFlush(enrollment);
+            meetupStats.enrolled(meetup.getId());
+            enrollmentChanged(enrollment);
+            return true;
+        }
+
+        AtomicInteger seats = availableSeats.computeIfAbsent(meetup.getId(),
+                meetupId -> new AtomicInteger(capacity - meetupSeatsRepository.findEnrolledByMeetupId(meetupId).orElse(capacity)));
+
+        if (!tryAcquire(seats)) {
+            return false;
+        }
+
+        try {
+            if (meetupSeatsRepository.reserve(meetup.getId(), capacity) == 0) {
+                seats.set(0);
+                return false;
+            }
+
+            enrollmentRepository.saveAndFlush(enrollment);
+            meetupStats.enrolled(meetup.getId());
+            enrollmentChanged(enrollment);
+            return true;
+        } catch (RuntimeException e) {
+            seats.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the given enrollment and hands its seat over to the first user of the waitlist of its meetup,
+     * or gives it back if the waitlist is empty.
+     *
+     * @param enrollment the enrollment to remove.
+     * @return {@code false} if the enrollment was already removed, {@code true} otherwise.
+     */
+    @Transactional
+    public boolean cancel(EnrollmentModel enrollment) {
+        if (enrollmentRepository.remove(enrollment.getId()) == 0) {
+            return false;
+        }
+
+        MeetupModel meetup = enrollment.getMeetup();
+        meetupStats.unenrolled(meetup.getId(), enrollment.isCheckedIn());
+        syncDeletions.enrollmentRemoved(enrollment);
+        enrollmentChanged(enrollment);
+
+        if (meetup.getCapacity() == null || promoteFromWaitlist(meetup)) {
+            return true;
+        }
+
+        meetupSeatsRepository.release(meetup.getId());
+        AtomicInteger seats = availableSeats.get(meetup.getId());
+
+        if (seats != null) {
+            seats.incrementAndGet();
+        }
+
+        return true;
+    }
+
+    /**
+     * Enrolls the first user of the waitlist of the given meetup that isn't enrolled yet.
+     *
+     * @param meetup the meetup whose waitlist will be used.
+     * @return {@code true} if a user was enrolled.
+     */
+    private boolean promoteFromWaitlist(MeetupModel meetup) {
+        for (WaitlistEntryModel entry : waitlistEntryRepository.findFirstByMeetupId(meetup.getId(), PageRequest.of(0, PROMOTION_BATCH_SIZE))) {
+            // The entry may have been taken by a concurrent cancellation.
+            if (waitlistEntryRepository.remove(entry.getId()) == 0
+                    || enrollmentRepository.existsByMeetupIdAndUserId(meetup.getId(), entry.getUser().getId())) {
+                continue;
+            }
+
+            EnrollmentModel enrollment = new EnrollmentModel();
+            enrollment.setMeetup(meetup);
+            enrollment.setUser(entry.getUser());
+            enrollmentRepository.save(enrollment);
+            meetupStats.enrolled(meetup.getId());
+            enrollmentChanged(enrollment);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Bumps the versions of the user of the given enrollment and of the owner of its meetup.
+     *
+     * @param enrollment the inserted or removed enrollment.
+     */
+    private void enrollmentChanged(EnrollmentModel enrollment) {
+        changeVersions.userChanged(enrollment.getUser().getId());
+        changeVersions.userChanged(enrollment.getMeetup().getOwner().getId());
+    }
+
+    private static boolean tryAcquire(AtomicInteger seats) {
+        int available;
+
+        do {
+            available = seats.get();
+
+            if (available <= 0) {
+                return false;
+            }
+        } while (!seats.compareAndSet(available, available - 1));
+
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.lzmz.meetups.service.stats;
+
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.service.attendance.AttendanceStreams;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Keeps the invitation and enrollment counters of the meetups up to date.
+ * <p>Every change is applied as an increment of the counters, within the transaction of the change, so the
+ * counters never have to be recomputed from the invitations and enrollments. The callers must make the change
+ * and count it in the same transaction, and only count the changes that were actually made. The changes of the
+ * enrollment counters are also published to the attendance streams.</p>
+ */
+@Component
+public class MeetupStats {
+
+    private final MeetupStatsRepository meetupStatsRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final AttendanceStreams attendanceStreams;
+
+    public MeetupStats(MeetupStatsRepository meetupStatsRepository, EnrollmentRepository enrollmentRepository, AttendanceStreams attendanceStreams) {
+        this.meetupStatsRepository = meetupStatsRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.attendanceStreams = attendanceStreams;
+    }
+
+    /**
+     * Counts a sent invitation.
+     *
+     * @param meetupId the meetup id of the invitation.
+     */
+    public void invitationSent(long meetupId) {
+        meetupStatsRepository.addInvitations(meetupId, 1, 0, 0);
+    }
+
+    /**
+     * Moves an invitation from the counter of its previous status to the counter of its new one. The previous
+     * status must be the one the change was conditioned on, not just the one that was read.
+     *
+     * @param meetupId the meetup id of the invitation.
+     * @param previous the previous status of the invitation.
+     * @param status   the new status of the invitation.
+     */
+    public void invitationStatusChanged(long meetupId, InvitationModel.Status previous, InvitationModel.Status status) {
+        int accepted = count(status, InvitationModel.Status.ACCEPTED) - count(previous, InvitationModel.Status.ACCEPTED);
+        int declined = count(status, InvitationModel.Status.DECLINED) - count(previous, InvitationModel.Status.DECLINED);
+
+        if (accepted != 0 || declined != 0) {
+            meetupStatsRepository.addInvitations(meetupId, 0, accepted, declined);
+        }
+    }
+
+    /**
+     * Counts an inserted enrollment.
+     *
+     * @param meetupId the meetup id of the enrollment.
+     */
+    public void enrolled(long meetupId) {
+        meetupStatsRepository.addEnrollments(meetupId, 1, 0);
+        attendanceStreams.attendanceChanged(meetupId);
+    }
+
+    /**
+     * Discounts a removed enrollment.
+     *
+     * @param meetupId  the meetup id of the enrollment.
+     * @param checkedIn whether the check-in of the enrollment was made.
+     */
+    public void unenrolled(long meetupId, boolean checkedIn) {
+        meetupStatsRepository.addEnrollments(meetupId, -1, checkedIn ? -1 : 0);
+        attendanceStreams.attendanceChanged(meetupId);
+    }
+
+    /**
+     * Makes the check-in of the users associated to the given enrollments of a meetup, and counts the
+     * check-ins that weren't made yet.
+     *
+     * @param meetupId      the meetup id of the enrollments.
+     * @param enrollmentIds the enrollment ids for which will be made the check-in.
+     * @param now           the time of the check-in.
+     * @return the number of check-ins made.
+     */
+    @Transactional
+    public int checkIn(long meetupId, Collection<Long> enrollmentIds, LocalDateTime now) {
+        int checkedIn = enrollmentRepository.checkIn(enrollmentIds, now);
+
+        if (checkedIn > 0) {
+            meetupStatsRepository.addEnrollments(meetupId, 0, checkedIn);
+            attendanceStreams.attendanceChanged(meetupId);
+        }
+
+        return checkedIn;
+    }
+
+    private static int count(InvitationModel.Status status, InvitationModel.Status counted) {
+        return status == counted ? 1 : 0;
+    }
+}
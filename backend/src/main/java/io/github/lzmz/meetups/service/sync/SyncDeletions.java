@@ -0,0 +1,78 @@
+package io.github.lzmz.meetups.service.sync;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.SyncDeletionModel;
+import io.github.lzmz.meetups.repository.SyncDeletionRepository;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Records the enrollments and invitations removed from the live tables, so the incremental syncs report them.
+ * <p>Each deletion is recorded within the transaction of the removal, and is kept for the
+ * {@code api.sync.deletion-retention} property. The syncs from a watermark older than that start from scratch,
+ * since some of the deletions they missed may have been purged.</p>
+ */
+@Component
+@Lazy(false)
+public class SyncDeletions {
+
+    /**
+     * Cron expression to schedule the purge of the recorded deletions.
+     * <p>It schedules the purge every day at 4:00 AM.</p>
+     */
+    public static final String PURGE_EXPRESSION = "0 0 4 * * *";
+
+    private final SyncDeletionRepository syncDeletionRepository;
+    private final Duration retention;
+
+    public SyncDeletions(SyncDeletionRepository syncDeletionRepository, ApiProperties apiProperties) {
+        this.syncDeletionRepository = syncDeletionRepository;
+        this.retention = apiProperties.getSync().getDeletionRetention();
+    }
+
+    /**
+     * Retrieves the horizon of the recorded deletions. All the deletions made since it are recorded.
+     *
+     * @return the oldest watermark from which a sync can be incremental.
+     */
+    public LocalDateTime getHorizon() {
+        return LocalDateTime.now().minus(retention);
+    }
+
+    /**
+     * Records the deletion of the given enrollment.
+     *
+     * @param enrollment the removed enrollment.
+     */
+    public void enrollmentRemoved(EnrollmentModel enrollment) {
+        syncDeletionRepository.save(new SyncDeletionModel(enrollment.getUser().getId(), SyncDeletionModel.Type.ENROLLMENT, enrollment.getId(), enrollment.getMeetup().getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Records the deletion of the enrollments and invitations of the given meetups. It must be called before
+     * they are removed.
+     *
+     * @param meetupIds the ids of the meetups whose enrollments and invitations will be removed.
+     */
+    public void meetupsRemoved(Collection<Long> meetupIds) {
+        LocalDateTime now = LocalDateTime.now();
+        syncDeletionRepository.addEnrollmentsByMeetupIds(meetupIds, now);
+        syncDeletionRepository.addInvitationsByMeetupIds(meetupIds, now);
+    }
+
+    /**
+     * Removes the deletions recorded before the horizon.
+     */
+    @Scheduled(cron = PURGE_EXPRESSION)
+    @Transactional
+    public void purge() {
+        syncDeletionRepository.removeAllDeletedBefore(getHorizon());
+    }
+}
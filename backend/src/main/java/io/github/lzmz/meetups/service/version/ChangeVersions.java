@@ -0,0 +1,171 @@
+package io.github.lzmz.meetups.service.version;
+
+import io.github.lzmz.meetups.model.ChangeVersionModel;
+import io.github.lzmz.meetups.repository.ChangeVersionRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Version counters of the data listed by the API, used as the ETags of the listings so that conditional
+ * requests are answered with a primary key lookup instead of the listing queries.
+ * <p>The versions are kept in the database and bumped by the transaction of the change, so they're shared by
+ * all the instances and a version is never visible before its change. The bumps of a transaction are deferred
+ * to its commit and made in the order of their names, so the version rows are locked briefly and two
+ * transactions never wait for each other's versions. The versions are read in a read-only transaction, so they
+ * come from the same database as the listing they tag.</p>
+ * <p>The tags are weak, since the same version is served with different encodings and fieldsets, which
+ * also lets the server compress the tagged responses. The encodings are negotiated, so the tagged responses vary
+ * by the {@code Accept} header, and a cache never answers a request with the response stored for another encoding.</p>
+ */
+@Component
+public class ChangeVersions {
+
+    /**
+     * Cache-Control value of the listings tagged with a version: they may be stored, but must be revalidated.
+     */
+    public static final String REVALIDATE = "private, no-cache";
+
+    private static final String DIRECTORY = "directory";
+    private static final String USER = "user:";
+    private static final String MEETUP = "meetup:";
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final ChangeVersionRepository changeVersionRepository;
+
+    public ChangeVersions(ChangeVersionRepository changeVersionRepository) {
+        this.changeVersionRepository = changeVersionRepository;
+    }
+
+    /**
+     * Checks whether the given request can be answered as not modified, and adds {@code Vary: Accept} to the
+     * response either way.
+     *
+     * @param request the request.
+     * @param tag     the current tag of the requested data.
+     * @return {@code true} if the request was answered as not modified.
+     */
+    public static boolean checkNotModified(WebRequest request, String tag) {
+        if (request instanceof ServletWebRequest) {
+            HttpServletResponse response = ((ServletWebRequest) request).getResponse();
+
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+
+        return request.checkNotModified(tag);
+    }
+
+    /**
+     * @return the tag of the user directory.
+     */
+    @Transactional(readOnly = true)
+    public String directoryTag() {
+        return tag(DIRECTORY);
+    }
+
+    /**
+     * @param userId the user id.
+     * @return the tag of the enrollments, invitations and meetups of the given user.
+     */
+    @Transactional(readOnly = true)
+    public String userTag(long userId) {
+        return tag(USER + userId);
+    }
+
+    /**
+     * @param meetupId the meetup id.
+     * @return the tag of the invitations of the given meetup.
+     */
+    @Transactional(readOnly = true)
+    public String meetupTag(long meetupId) {
+        return tag(MEETUP + meetupId);
+    }
+
+    /**
+     * @return the tag of the data that only changes at midnight. It's specific to this instance, which loads
+     * that data on its own.
+     */
+    public String dayTag() {
+        return weak(instanceId + "-" + LocalDate.now());
+    }
+
+    /**
+     * Bumps the version of the user directory when the current transaction is committed.
+     */
+    public void directoryChanged() {
+        changed(DIRECTORY);
+    }
+
+    /**
+     * Bumps the version of the given user when the current transaction is committed.
+     *
+     * @param userId the user id.
+     */
+    public void userChanged(long userId) {
+        changed(USER + userId);
+    }
+
+    /**
+     * Bumps the version of the given meetup when the current transaction is committed.
+     *
+     * @param meetupId the meetup id.
+     */
+    public void meetupChanged(long meetupId) {
+        changed(MEETUP + meetupId);
+    }
+
+    private String tag(String name) {
+        return weak(Long.toString(changeVersionRepository.findById(name).map(ChangeVersionModel::getVersion).orElse(0L)));
+    }
+
+    private static String weak(String value) {
+        return "W/\"" + value + "\"";
+    }
+
+    private void changed(String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeVersionRepository.bump(name);
+            return;
+        }
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Bumps && ((Bumps) synchronization).getOwner() == this) {
+                ((Bumps) synchronization).names.add(name);
+                return;
+            }
+        }
+
+        Bumps bumps = new Bumps();
+        bumps.names.add(name);
+        TransactionSynchronizationManager.registerSynchronization(bumps);
+    }
+
+    /**
+     * Versions to bump when the transaction it's registered in is committed.
+     */
+    private class Bumps extends TransactionSynchronizationAdapter {
+
+        private final Set<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(changeVersionRepository::bump);
+        }
+
+        private ChangeVersions getOwner() {
+            return ChangeVersions.this;
+        }
+    }
+}
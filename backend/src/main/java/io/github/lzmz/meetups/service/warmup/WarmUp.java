@@ -0,0 +1,165 @@
+package io.github.lzmz.meetups.service.warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.lzmz.meetups.config.datasource.ReplicaRoutingDataSource;
+import io.github.lzmz.meetups.config.pagination.KeysetPagination;
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.security.JwtUtil;
+import io.github.lzmz.meetups.security.Role;
+import io.github.lzmz.meetups.service.EnrollmentService;
+import io.github.lzmz.meetups.service.InvitationService;
+import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.UserService;
+import io.github.lzmz.meetups.service.WeatherService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Warms up the application once it's started, so that the first requests don't pay for the cold connection pools,
+ * the empty forecast cache and the code that isn't compiled yet.
+ * <p>The connection pools are filled and the forecast is loaded, then the main listing queries and the parsing of a
+ * JWT are run the number of times set by the {@code api.warm-up.iterations} property. The indicator is out of
+ * service until the warm-up ends, which keeps the readiness health group down meanwhile. A failed step doesn't stop
+ * the warm-up, it's reported in the details of the indicator.</p>
+ */
+@Component
+public class WarmUp implements HealthIndicator {
+
+    /**
+     * Name of the timer of the warm-up duration.
+     */
+    public static final String METRIC_NAME = "api.warm-up";
+
+    /**
+     * Id of the users and meetups looked up by the queries, which doesn't have to exist.
+     */
+    private static final long SAMPLE_ID = 0;
+
+    private final DataSource dataSource;
+    private final WeatherService weatherService;
+    private final UserService userService;
+    private final MeetupService meetupService;
+    private final InvitationService invitationService;
+    private final EnrollmentService enrollmentService;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+    private final int iterations;
+    private final List<String> failedSteps = new CopyOnWriteArrayList<>();
+    private volatile Duration duration;
+
+    public WarmUp(DataSource dataSource, WeatherService weatherService, UserService userService, MeetupService meetupService, InvitationService invitationService, EnrollmentService enrollmentService, JwtUtil jwtUtil, MeterRegistry meterRegistry, ApiProperties apiProperties) {
+        this.dataSource = dataSource;
+        this.weatherService = weatherService;
+        this.userService = userService;
+        this.meetupService = meetupService;
+        this.invitationService = invitationService;
+        this.enrollmentService = enrollmentService;
+        this.jwtUtil = jwtUtil;
+        this.meterRegistry = meterRegistry;
+        this.iterations = apiProperties.getWarmUp().getIterations();
+    }
+
+    /**
+     * Runs the warm-up and records its duration.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        long start = System.nanoTime();
+
+        List<DataSource> connectionPools = dataSource instanceof ReplicaRoutingDataSource ? ((ReplicaRoutingDataSource) dataSource).getTargets() : Collections.singletonList(dataSource);
+        connectionPools.forEach(connectionPool -> step("connections", () -> fill(connectionPool)));
+        step("forecast", weatherService::getDailyForecast);
+
+        for (int i = 0; i < iterations; i++) {
+            step("queries", this::runQueries);
+            step("jwt", this::parseJwt);
+        }
+
+        duration = Duration.ofNanos(System.nanoTime() - start);
+        Timer.builder(METRIC_NAME).description("Time taken by the warm-up").register(meterRegistry).record(duration);
+    }
+
+    @Override
+    public Health health() {
+        if (duration == null) {
+            return Health.outOfService().build();
+        }
+
+        return Health.up()
+                .withDetail("duration", duration.toMillis() + "ms")
+                .withDetail("failedSteps", failedSteps)
+                .build();
+    }
+
+    /**
+     * Opens as many connections as the given pool keeps idle at the same time, so that all of them are created.
+     *
+     * @param connectionPool the pool to fill.
+     * @throws Exception if a connection couldn't be opened.
+     */
+    private static void fill(DataSource connectionPool) throws Exception {
+        int size = connectionPool.isWrapperFor(HikariDataSource.class) ? connectionPool.unwrap(HikariDataSource.class).getMinimumIdle() : 1;
+        List<Connection> connections = new ArrayList<>(size);
+
+        try {
+            for (int i = 0; i < size; i++) {
+                connections.add(connectionPool.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private void runQueries() throws ValueNotAllowedException {
+        userService.findAll(null, null, KeysetPagination.DEFAULT_SIZE);
+        meetupService.getCreatedMeetups(SAMPLE_ID, LocalDate.now(), null);
+        meetupService.getEnrolledMeetups(SAMPLE_ID, LocalDate.now(), null);
+        invitationService.findAll(null, SAMPLE_ID, null, null, KeysetPagination.DEFAULT_SIZE, false, null);
+        invitationService.count(null, SAMPLE_ID, null, false);
+        enrollmentService.findAll(SAMPLE_ID, false, null);
+    }
+
+    private void parseJwt() {
+        String token = jwtUtil.generateToken(User.withUsername(METRIC_NAME).password("").authorities(Role.USER).build());
+        jwtUtil.getAuthorities(jwtUtil.parseClaims(token));
+    }
+
+    /**
+     * Runs a step of the warm-up, keeping its name if it fails.
+     *
+     * @param name   the name of the step.
+     * @param action the step to run.
+     */
+    private void step(String name, Step action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            if (!failedSteps.contains(name)) {
+                failedSteps.add(name);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
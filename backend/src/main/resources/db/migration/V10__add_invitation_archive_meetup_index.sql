@@ -0,0 +1,2 @@
+-- Archived invitations of a meetup, filtered by status, listed along with the live ones.
+CREATE INDEX idx_invitation_archive_meetup_status ON invitation_archive (meetup_id, status);
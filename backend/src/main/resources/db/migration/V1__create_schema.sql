@@ -0,0 +1,48 @@
+-- Schema previously generated by Hibernate. Existing databases are baselined at this version.
+CREATE TABLE user
+(
+    id         BIGINT   NOT NULL AUTO_INCREMENT,
+    created_at DATETIME NOT NULL,
+    email      VARCHAR(255),
+    name       VARCHAR(255),
+    password   VARCHAR(255),
+    role       INTEGER  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_email UNIQUE (email)
+);
+
+CREATE TABLE meetup
+(
+    id          BIGINT           NOT NULL AUTO_INCREMENT,
+    created_at  DATETIME         NOT NULL,
+    day         DATETIME         NOT NULL,
+    temperature DOUBLE PRECISION NOT NULL,
+    owner_id    BIGINT           NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_meetup_owner_day UNIQUE (owner_id, day),
+    CONSTRAINT fk_meetup_owner FOREIGN KEY (owner_id) REFERENCES user (id)
+);
+
+CREATE TABLE enrollment
+(
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    checked_in BIT,
+    meetup_id  BIGINT NOT NULL,
+    user_id    BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_enrollment_meetup_user UNIQUE (meetup_id, user_id),
+    CONSTRAINT fk_enrollment_meetup FOREIGN KEY (meetup_id) REFERENCES meetup (id),
+    CONSTRAINT fk_enrollment_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
+
+CREATE TABLE invitation
+(
+    id        BIGINT  NOT NULL AUTO_INCREMENT,
+    status    INTEGER NOT NULL,
+    meetup_id BIGINT  NOT NULL,
+    user_id   BIGINT  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_invitation_meetup_user UNIQUE (meetup_id, user_id),
+    CONSTRAINT fk_invitation_meetup FOREIGN KEY (meetup_id) REFERENCES meetup (id),
+    CONSTRAINT fk_invitation_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
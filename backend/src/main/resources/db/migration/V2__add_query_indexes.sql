@@ -0,0 +1,9 @@
+-- Enrollments of a user, joined to their meetups (enrollments and enrolled meetups listings).
+CREATE INDEX idx_enrollment_user_meetup ON enrollment (user_id, meetup_id);
+
+-- Invitation inbox of a user and invitations of a meetup, filtered by status.
+CREATE INDEX idx_invitation_user_status ON invitation (user_id, status);
+CREATE INDEX idx_invitation_meetup_status ON invitation (meetup_id, status);
+
+-- User directory pages filtered by role.
+CREATE INDEX idx_user_role ON user (role);
@@ -0,0 +1,23 @@
+-- Maximum number of enrolled users, unlimited when null.
+ALTER TABLE meetup ADD COLUMN capacity INTEGER;
+
+-- Enrolled users of the meetups with a capacity. Kept apart from the meetup table so that
+-- the seat reservations don't evict the meetups from the second-level cache.
+CREATE TABLE meetup_seats
+(
+    meetup_id BIGINT  NOT NULL,
+    enrolled  INTEGER NOT NULL,
+    PRIMARY KEY (meetup_id),
+    CONSTRAINT fk_meetup_seats_meetup FOREIGN KEY (meetup_id) REFERENCES meetup (id)
+);
+
+CREATE TABLE waitlist_entry
+(
+    id        BIGINT NOT NULL AUTO_INCREMENT,
+    meetup_id BIGINT NOT NULL,
+    user_id   BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_waitlist_entry_meetup_user UNIQUE (meetup_id, user_id),
+    CONSTRAINT fk_waitlist_entry_meetup FOREIGN KEY (meetup_id) REFERENCES meetup (id),
+    CONSTRAINT fk_waitlist_entry_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
@@ -0,0 +1,11 @@
+-- Last change of each row, used to send clients only the rows changed since their last sync.
+-- Millisecond precision, so that the rows changed within the same second can be told apart.
+ALTER TABLE meetup ADD COLUMN updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL;
+ALTER TABLE enrollment ADD COLUMN updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL;
+ALTER TABLE invitation ADD COLUMN updated_at DATETIME(3) DEFAULT CURRENT_TIMESTAMP(3) NOT NULL;
+
+UPDATE meetup SET updated_at = created_at;
+
+-- Enrollments and invitations of a user changed since a given time.
+CREATE INDEX idx_enrollment_user_updated ON enrollment (user_id, updated_at);
+CREATE INDEX idx_invitation_user_updated ON invitation (user_id, updated_at);
@@ -0,0 +1,24 @@
+-- Invitation and enrollment counters of each meetup, kept up to date on every change so that the
+-- organizer analytics don't read the invitations and enrollments. Kept apart from the meetup table
+-- so that the counter updates don't evict the meetups from the second-level cache.
+CREATE TABLE meetup_stats
+(
+    meetup_id            BIGINT  NOT NULL,
+    invitations_sent     INTEGER NOT NULL,
+    invitations_accepted INTEGER NOT NULL,
+    invitations_declined INTEGER NOT NULL,
+    enrolled             INTEGER NOT NULL,
+    checked_in           INTEGER NOT NULL,
+    PRIMARY KEY (meetup_id),
+    CONSTRAINT fk_meetup_stats_meetup FOREIGN KEY (meetup_id) REFERENCES meetup (id)
+);
+
+-- Invitation status ordinals: 1 is ACCEPTED and 2 is DECLINED.
+INSERT INTO meetup_stats (meetup_id, invitations_sent, invitations_accepted, invitations_declined, enrolled, checked_in)
+SELECT m.id,
+       (SELECT COUNT(*) FROM invitation i WHERE i.meetup_id = m.id),
+       (SELECT COUNT(*) FROM invitation i WHERE i.meetup_id = m.id AND i.status = 1),
+       (SELECT COUNT(*) FROM invitation i WHERE i.meetup_id = m.id AND i.status = 2),
+       (SELECT COUNT(*) FROM enrollment e WHERE e.meetup_id = m.id),
+       (SELECT COUNT(*) FROM enrollment e WHERE e.meetup_id = m.id AND e.checked_in = TRUE)
+FROM meetup m;
@@ -0,0 +1,55 @@
+-- Meetups older than the archive horizon, moved out of the live tables with their invitations and
+-- enrollments by the archival job. Their counters are final, so they're kept in the meetup row instead
+-- of in a meetup_stats_archive table. Rows keep the ids they had in the live tables.
+CREATE TABLE meetup_archive
+(
+    id                   BIGINT           NOT NULL,
+    created_at           DATETIME         NOT NULL,
+    day                  DATETIME         NOT NULL,
+    temperature          DOUBLE PRECISION NOT NULL,
+    owner_id             BIGINT           NOT NULL,
+    capacity             INTEGER,
+    updated_at           DATETIME(3)      NOT NULL,
+    archived_at          DATETIME(3)      NOT NULL,
+    invitations_sent     INTEGER          NOT NULL,
+    invitations_accepted INTEGER          NOT NULL,
+    invitations_declined INTEGER          NOT NULL,
+    enrolled             INTEGER          NOT NULL,
+    checked_in           INTEGER          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_meetup_archive_owner FOREIGN KEY (owner_id) REFERENCES user (id)
+);
+
+CREATE TABLE enrollment_archive
+(
+    id         BIGINT      NOT NULL,
+    checked_in BIT,
+    meetup_id  BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_enrollment_archive_meetup FOREIGN KEY (meetup_id) REFERENCES meetup_archive (id),
+    CONSTRAINT fk_enrollment_archive_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
+
+CREATE TABLE invitation_archive
+(
+    id         BIGINT      NOT NULL,
+    status     INTEGER     NOT NULL,
+    meetup_id  BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_invitation_archive_meetup FOREIGN KEY (meetup_id) REFERENCES meetup_archive (id),
+    CONSTRAINT fk_invitation_archive_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
+
+-- Meetups past the archive horizon, selected by the archival job.
+CREATE INDEX idx_meetup_day ON meetup (day);
+
+-- Archived meetups of an owner within a range of days (organizer analytics).
+CREATE INDEX idx_meetup_archive_owner_day ON meetup_archive (owner_id, day);
+
+-- Archived enrollments and invitations of a user.
+CREATE INDEX idx_enrollment_archive_user_meetup ON enrollment_archive (user_id, meetup_id);
+CREATE INDEX idx_invitation_archive_user_status ON invitation_archive (user_id, status);
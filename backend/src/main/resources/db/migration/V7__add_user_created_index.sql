@@ -0,0 +1,2 @@
+-- Users created since a given time, re-read by the prefix index of every instance.
+CREATE INDEX idx_user_created_at ON user (created_at);
@@ -0,0 +1,19 @@
+-- Enrollments and invitations removed from the live tables, by a cancellation or by the archival job, so
+-- that the incremental sync of their user reports them. Rows older than the retention are purged, and the
+-- syncs from before it start from scratch.
+CREATE TABLE sync_deletion
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT      NOT NULL,
+    type       INTEGER     NOT NULL,
+    entity_id  BIGINT      NOT NULL,
+    meetup_id  BIGINT      NOT NULL,
+    deleted_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Deletions of a user since the watermark of the previous sync.
+CREATE INDEX idx_sync_deletion_user_deleted_at ON sync_deletion (user_id, deleted_at);
+
+-- Deletions past the retention, purged daily.
+CREATE INDEX idx_sync_deletion_deleted_at ON sync_deletion (deleted_at);
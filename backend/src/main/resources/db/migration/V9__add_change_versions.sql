@@ -0,0 +1,8 @@
+-- Versions of the data listed by the API, bumped by the transactions that change it, so that the ETags of
+-- the listings are shared by all the instances. Rows are created by their first bump.
+CREATE TABLE change_version
+(
+    name    VARCHAR(40) NOT NULL,
+    version BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
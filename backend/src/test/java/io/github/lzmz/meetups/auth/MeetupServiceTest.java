@@ -1,17 +1,35 @@
 package io.github.lzmz.meetups.auth;
 
 import io.github.lzmz.meetups.dto.mapper.MeetupMapper;
+import io.github.lzmz.meetups.dto.response.MeetupStatsDto;
+import io.github.lzmz.meetups.dto.response.MeetupUserDto;
+import io.github.lzmz.meetups.dto.response.OrganizerStatsDto;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.repository.MeetupArchiveRepository;
 import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
 import io.github.lzmz.meetups.repository.UserRepository;
 import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.archive.MeetupArchive;
 import io.github.lzmz.meetups.service.implementation.MeetupServiceImpl;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @RunWith(SpringJUnit4ClassRunner.class)
 public class MeetupServiceTest {
@@ -21,15 +39,31 @@ public class MeetupServiceTest {
     @Mock
     private MeetupRepository meetupRepository;
 
+    @Mock
+    private MeetupSeatsRepository meetupSeatsRepository;
+
+    @Mock
+    private MeetupStatsRepository meetupStatsRepository;
+
+    @Mock
+    private MeetupArchiveRepository meetupArchiveRepository;
+
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private MeetupArchive meetupArchive;
+
     @Mock
     private MeetupMapper meetupMapper;
 
+    @Mock
+    private ChangeVersions changeVersions;
+
     @Before
     public void setUp() {
-        meetupService = new MeetupServiceImpl(meetupRepository, userRepository, meetupMapper);
+        meetupService = new MeetupServiceImpl(meetupRepository, meetupSeatsRepository, meetupStatsRepository, meetupArchiveRepository, userRepository, changeVersions, meetupArchive, meetupMapper);
+        when(meetupArchive.getHorizon()).thenReturn(LocalDate.now().minusYears(1));
     }
 
     @Test
@@ -91,4 +125,83 @@ public class MeetupServiceTest {
     public void calculateNeededBeerCases_25temperatureAnd7Participants_shouldReturn3() {
         assertEquals(3, meetupService.calculateBeerCasesNeeded(25, 7));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getStats_heldAndUpcomingMeetups_shouldOnlyCountNoShowsOfHeldOnes() throws ValueNotAllowedException {
+        LocalDate today = LocalDate.now();
+        MeetupStatsDto held = new MeetupStatsDto(1L, today.minusDays(1), 25, 10, 6, 2, 6, 4);
+        MeetupStatsDto upcoming = new MeetupStatsDto(2L, today.plusDays(1), 19, 10, 2, 0, 2, 0);
+        when(meetupStatsRepository.findAllDtosByOwnerIdAndDayBetween(1L, today.minusDays(7), today.plusDays(7))).thenReturn(Arrays.asList(held, upcoming));
+
+        OrganizerStatsDto stats = meetupService.getStats(1L, today.minusDays(7), today.plusDays(7));
+
+        assertEquals(2, held.getNoShows());
+        assertEquals(0, upcoming.getNoShows());
+        assertEquals(20, stats.getInvitationsSent());
+        assertEquals(0.4, stats.getAcceptanceRate(), 0);
+        assertEquals(8, stats.getEnrolled());
+        assertEquals(2, stats.getNoShows());
+        assertEquals(4.0 / 6, stats.getCheckInRate(), 0);
+        assertEquals(3, stats.getBeerCasesNeeded());
+    }
+
+    @Test
+    public void getStats_rangeBeforeArchiveHorizon_shouldIncludeArchivedMeetups() throws ValueNotAllowedException {
+        LocalDate horizon = meetupArchive.getHorizon();
+        MeetupStatsDto archived = new MeetupStatsDto(1L, horizon.minusDays(5), 19, 4, 4, 0, 4, 3);
+        MeetupStatsDto live = new MeetupStatsDto(2L, horizon.plusDays(5), 19, 6, 2, 1, 2, 2);
+        when(meetupStatsRepository.findAllDtosByOwnerIdAndDayBetween(1L, horizon.minusDays(10), horizon.plusDays(10))).thenReturn(new ArrayList<>(Collections.singletonList(live)));
+        when(meetupArchiveRepository.findAllStatsDtosByOwnerIdAndDayBetween(1L, horizon.minusDays(10), horizon.plusDays(10))).thenReturn(Collections.singletonList(archived));
+
+        OrganizerStatsDto stats = meetupService.getStats(1L, horizon.minusDays(10), horizon.plusDays(10));
+
+        assertEquals(Arrays.asList(archived, live), stats.getMeetups());
+        assertEquals(10, stats.getInvitationsSent());
+        assertEquals(6, stats.getEnrolled());
+        assertEquals(1, stats.getNoShows());
+    }
+
+    @Test
+    public void getEnrolledMeetups_rangeAfterArchiveHorizon_shouldOnlyReadLiveMeetups() throws ValueNotAllowedException {
+        LocalDate today = LocalDate.now();
+        MeetupUserDto upcoming = new MeetupUserDto(1L, today.plusDays(1), 2L, "Owner", "owner@meetups.io", 20);
+        when(meetupRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(eq(1L), eq(today), any())).thenReturn(new ArrayList<>(Collections.singletonList(upcoming)));
+
+        assertEquals(Collections.singletonList(upcoming), meetupService.getEnrolledMeetups(1L, today, null));
+        verifyNoInteractions(meetupArchiveRepository);
+    }
+
+    @Test
+    public void getEnrolledMeetups_rangeBeforeArchiveHorizon_shouldIncludeArchivedMeetups() throws ValueNotAllowedException {
+        LocalDate horizon = meetupArchive.getHorizon();
+        MeetupUserDto archived = new MeetupUserDto(1L, horizon.minusDays(1), 2L, "Owner", "owner@meetups.io", 20);
+        MeetupUserDto live = new MeetupUserDto(2L, horizon.plusDays(1), 2L, "Owner", "owner@meetups.io", 20);
+        when(meetupRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(eq(1L), eq(horizon.minusDays(7)), any())).thenReturn(new ArrayList<>(Collections.singletonList(live)));
+        when(meetupArchiveRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(eq(1L), eq(horizon.minusDays(7)), any())).thenReturn(Collections.singletonList(archived));
+
+        assertEquals(Arrays.asList(archived, live), meetupService.getEnrolledMeetups(1L, horizon.minusDays(7), null));
+    }
+
+    @Test
+    public void getEnrolledMeetups_noFirstDay_shouldIncludeArchivedMeetups() throws ValueNotAllowedException {
+        LocalDate horizon = meetupArchive.getHorizon();
+        MeetupUserDto archived = new MeetupUserDto(1L, horizon.minusDays(1), 2L, "Owner", "owner@meetups.io", 20);
+        MeetupUserDto live = new MeetupUserDto(2L, horizon.plusDays(1), 2L, "Owner", "owner@meetups.io", 20);
+        when(meetupRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(eq(1L), any(), any())).thenReturn(new ArrayList<>(Collections.singletonList(live)));
+        when(meetupArchiveRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(eq(1L), any(), any())).thenReturn(Collections.singletonList(archived));
+
+        assertEquals(Arrays.asList(archived, live), meetupService.getEnrolledMeetups(1L, null, null));
+    }
+
+    @Test(expected = ValueNotAllowedException.class)
+    public void getEnrolledMeetups_reversedRange_shouldThrow() throws ValueNotAllowedException {
+        LocalDate today = LocalDate.now();
+        meetupService.getEnrolledMeetups(1L, today, today.minusDays(1));
+    }
+
+    @Test(expected = ValueNotAllowedException.class)
+    public void getStats_rangeLongerThanMaximum_shouldThrow() throws ValueNotAllowedException {
+        LocalDate from = LocalDate.now();
+        meetupService.getStats(1L, from, from.plusDays(MeetupService.MAX_STATS_DAYS));
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.lzmz.meetups.config;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.exceptions.CustomException;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.model.MeetupModel;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.Assert.assertTrue;
+
+public class ExceptionConfigTest {
+
+    @After
+    public void tearDown() {
+        CustomException.setStackTraces(false);
+    }
+
+    @Test
+    public void start_lazyInitialization_shouldApplyStackTraces() {
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor()))
+                .withUserConfiguration(ExceptionConfig.class, PropertiesConfig.class)
+                .withPropertyValues("api.exceptions.stack-traces=true")
+                .run(context -> assertTrue(new EntityNotFoundException(MeetupModel.class, 1L).getStackTrace().length > 0));
+    }
+
+    @EnableConfigurationProperties(ApiProperties.class)
+    static class PropertiesConfig {
+    }
+}
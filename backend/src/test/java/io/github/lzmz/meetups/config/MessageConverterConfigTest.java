@@ -0,0 +1,48 @@
+package io.github.lzmz.meetups.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.lzmz.meetups.config.fieldset.Fieldsets;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageConverterConfigTest {
+
+    private final MessageConverterConfig messageConverterConfig = new MessageConverterConfig();
+
+    @Test
+    public void cborHttpMessageConverter_enrollment_shouldRoundTrip() throws IOException {
+        assertRoundTrip(messageConverterConfig.cborHttpMessageConverter(builder()), new MediaType("application", "cbor"));
+    }
+
+    @Test
+    public void smileHttpMessageConverter_enrollment_shouldRoundTrip() throws IOException {
+        assertRoundTrip(messageConverterConfig.smileHttpMessageConverter(builder()), new MediaType("application", "x-jackson-smile"));
+    }
+
+    private static void assertRoundTrip(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws IOException {
+        EnrollmentDto enrollment = new EnrollmentDto(1L, 2L, 3L, "Owner", "owner@meetups.io", LocalDate.of(2020, 5, 1), 21.5, true);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(enrollment, mediaType, output);
+        EnrollmentDto read = (EnrollmentDto) converter.read(EnrollmentDto.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+
+        assertEquals(mediaType, output.getHeaders().getContentType());
+        assertEquals(enrollment.getMeetupOwnerEmail(), read.getMeetupOwnerEmail());
+        assertEquals(enrollment.getMeetupDay(), read.getMeetupDay());
+        assertEquals(enrollment.getMeetupTemperature(), read.getMeetupTemperature(), 0);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).filters(Fieldsets.ALL);
+    }
+}
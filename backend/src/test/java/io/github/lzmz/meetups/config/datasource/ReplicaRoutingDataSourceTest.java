@@ -0,0 +1,153 @@
+package io.github.lzmz.meetups.config.datasource;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.github.lzmz.meetups.config.ReplicaConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @Before
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("drop table marker");
+        new JdbcTemplate(replica).execute("drop table marker");
+    }
+
+    @Test
+    public void readOnlyTransaction_shouldUseReplica() {
+        assertEquals("replica", readMarker(routing(Duration.ofMinutes(1)), true));
+    }
+
+    @Test
+    public void readWriteTransaction_shouldUsePrimary() {
+        assertEquals("primary", readMarker(routing(Duration.ofMinutes(1)), false));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterWriteOfSameUser_shouldUsePrimary() {
+        DataSource dataSource = routing(Duration.ofMinutes(1));
+        authenticate("writer@meetups.com");
+        readMarker(dataSource, false);
+
+        assertEquals("primary", readMarker(dataSource, true));
+
+        authenticate("reader@meetups.com");
+        assertEquals("replica", readMarker(dataSource, true));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterWindowOfWrite_shouldUseReplica() {
+        DataSource dataSource = routing(Duration.ZERO);
+        authenticate("writer@meetups.com");
+        readMarker(dataSource, false);
+
+        assertEquals("replica", readMarker(dataSource, true));
+    }
+
+    @Test
+    public void readWriteTransaction_afterReadOnlyOneOfSameEntityManager_shouldUsePrimary() {
+        EntityManagerFactory entityManagerFactory = entityManagerFactory(routing(Duration.ZERO));
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        ListAppender<ILoggingEvent> dialectLog = new ListAppender<>();
+        Logger dialectLogger = (Logger) LoggerFactory.getLogger(HibernateJpaDialect.class);
+        dialectLogger.addAppender(dialectLog);
+        dialectLog.start();
+        // Bound to the thread like an entity manager kept open in the view.
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+        try {
+            transactionTemplate.setReadOnly(true);
+            assertEquals("replica", transactionTemplate.execute(status -> entityManager.createNativeQuery("select name from marker").getSingleResult()));
+
+            transactionTemplate.setReadOnly(false);
+            transactionTemplate.execute(status -> entityManager.createNativeQuery("insert into marker values ('written')").executeUpdate());
+        } finally {
+            dialectLogger.detachAppender(dialectLog);
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            entityManagerFactory.close();
+        }
+
+        assertEquals(1, (int) new JdbcTemplate(primary).queryForObject("select count(*) from marker where name = 'written'", Integer.class));
+        assertEquals(0, (int) new JdbcTemplate(replica).queryForObject("select count(*) from marker where name = 'written'", Integer.class));
+        // The connection released after the read-only transaction isn't reset by the dialect.
+        assertTrue(dialectLog.list.stream().noneMatch(event -> event.getLevel().isGreaterOrEqual(Level.WARN)));
+    }
+
+    private DataSource routing(Duration readYourWritesWindow) {
+        return new ReplicaRoutingDataSource(primary, replica, readYourWritesWindow);
+    }
+
+    private static String readMarker(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject("select name from marker", String.class));
+    }
+
+    private static EntityManagerFactory entityManagerFactory(DataSource dataSource) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.DIALECT, H2Dialect.class.getName());
+        new ReplicaConfig().releaseConnectionAfterTransaction().customize(properties);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackage().getName());
+        factory.setJpaVendorAdapter((HibernateJpaVendorAdapter) ReplicaConfig.unpreparedConnections().postProcessBeforeInitialization(new HibernateJpaVendorAdapter(), "jpaVendorAdapter"));
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table marker (name varchar(10))");
+        jdbcTemplate.update("insert into marker values (?)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+}
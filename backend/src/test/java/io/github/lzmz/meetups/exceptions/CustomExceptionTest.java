@@ -0,0 +1,27 @@
+package io.github.lzmz.meetups.exceptions;
+
+import io.github.lzmz.meetups.model.MeetupModel;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CustomExceptionTest {
+
+    @After
+    public void tearDown() {
+        CustomException.setStackTraces(false);
+    }
+
+    @Test
+    public void create_stackTracesDisabled_shouldNotCaptureStackTrace() {
+        assertEquals(0, new EntityNotFoundException(MeetupModel.class, 1L).getStackTrace().length);
+    }
+
+    @Test
+    public void create_stackTracesEnabled_shouldCaptureStackTrace() {
+        CustomException.setStackTraces(true);
+        assertTrue(new EntityNotFoundException(MeetupModel.class, 1L).getStackTrace().length > 0);
+    }
+}
@@ -0,0 +1,232 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.AttendeeDto;
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.security.Role;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL of every repository query against an embedded database migrated with
+ * the application migrations, and fails if any table is read without a lookup condition.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.github.lzmz.meetups.repository.SqlStatementRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class RepositoryQueryPlanTest {
+
+    /**
+     * A table or index access without condition, e.g. {@code /* PUBLIC.MEETUP.tableScan *}{@code /}.
+     */
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\*\\s*[\\w.\"]+\\s*\\*/");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeetupSeatsRepository meetupSeatsRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private MeetupStatsRepository meetupStatsRepository;
+
+    @Autowired
+    private MeetupArchiveRepository meetupArchiveRepository;
+
+    @Autowired
+    private SyncDeletionRepository syncDeletionRepository;
+
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Before
+    public void setUp() {
+        SqlStatementRecorder.drain();
+    }
+
+    @Test
+    public void enrollmentRepositoryQueries_shouldUseIndexes() throws SQLException {
+        enrollmentRepository.findAllByUserId(1L, false, null);
+        enrollmentRepository.findAllByUserId(1L, true, null);
+        enrollmentRepository.findAllByUserId(1L, false, new HashSet<>(Arrays.asList("id", "checkedIn")));
+        enrollmentRepository.findAllDtosByUserIdUpdatedSince(1L, LocalDateTime.now());
+        enrollmentRepository.existsByMeetupIdAndUserId(1L, 1L);
+        enrollmentRepository.findById(1L);
+        enrollmentRepository.findMeetupByEnrollmentId(1L);
+        enrollmentRepository.findAllIdsByMeetupId(1L);
+
+        try (Stream<AttendeeDto> attendees = enrollmentRepository.streamAttendeesByMeetupId(1L)) {
+            attendees.forEach(attendee -> {
+            });
+        }
+
+        enrollmentRepository.findMeetupDaysByIds(Arrays.asList(1L, 2L));
+        enrollmentRepository.findAttendanceByMeetupId(1L);
+        enrollmentRepository.checkIn(Arrays.asList(1L, 2L), LocalDateTime.now());
+        enrollmentRepository.remove(1L);
+        enrollmentRepository.findAllUserIdsByMeetupIds(Arrays.asList(1L, 2L));
+        enrollmentRepository.removeAllByMeetupIds(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void invitationRepositoryQueries_shouldUseIndexes() throws SQLException {
+        invitationRepository.findPage(null, 1L, InvitationModel.Status.PENDING, null, 10, false, null);
+        invitationRepository.findPage(null, 1L, null, 10L, 10, true, null);
+        invitationRepository.findPage(1L, null, InvitationModel.Status.ACCEPTED, null, 10, true, null);
+        invitationRepository.findPage(null, 1L, null, null, 10, false, new HashSet<>(Arrays.asList("id", "meetupId", "status")));
+        invitationRepository.countFiltered(null, 1L, InvitationModel.Status.PENDING, true);
+        invitationRepository.countFiltered(1L, null, null, true);
+        invitationRepository.existsByMeetupIdAndUserId(1L, 1L);
+        invitationRepository.findAllDtosByUserIdUpdatedSince(1L, LocalDateTime.now());
+        invitationRepository.findById(1L);
+        invitationRepository.findAllUserIdsByMeetupIds(Arrays.asList(1L, 2L));
+        invitationRepository.removeAllByMeetupIds(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void meetupRepositoryQueries_shouldUseIndexes() throws SQLException {
+        meetupRepository.findById(1L);
+        meetupRepository.findWithEnrolledUsersById(1L);
+        meetupRepository.findAllWithEnrolledUsersByOwnerIdAndDayBetween(1L, LocalDate.now(), LocalDate.now().plusDays(30));
+        meetupRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(1L, LocalDate.now(), LocalDate.now().plusDays(30));
+        meetupRepository.findAllUserDtosByEnrolledUserIdUpdatedSince(1L, LocalDateTime.now());
+        meetupRepository.existsById(1L);
+        meetupRepository.existsByOwnerIdAndDay(1L, LocalDate.now());
+        meetupRepository.findIdsAndOwnerIdsByDayBefore(LocalDate.now(), PageRequest.of(0, 10));
+        meetupRepository.removeAll(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void userRepositoryQueries_shouldUseIndexes() throws SQLException {
+        userRepository.findById(1L);
+        userRepository.findByEmail("user@meetups.io");
+        userRepository.existsByEmail("user@meetups.io");
+        userRepository.findPage(0, PageRequest.of(0, 10));
+        userRepository.findPageByRole(Role.USER, 0, PageRequest.of(0, 10));
+        userRepository.findPageCreatedSince(LocalDateTime.now(), 0, PageRequest.of(0, 10));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void meetupSeatsRepositoryQueries_shouldUseIndexes() throws SQLException {
+        meetupSeatsRepository.findEnrolledByMeetupId(1L);
+        meetupSeatsRepository.reserve(1L, 10);
+        meetupSeatsRepository.release(1L);
+        meetupSeatsRepository.removeAllByMeetupIds(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void meetupStatsRepositoryQueries_shouldUseIndexes() throws SQLException {
+        meetupStatsRepository.findAllDtosByOwnerIdAndDayBetween(1L, LocalDate.now(), LocalDate.now().plusDays(30));
+        meetupStatsRepository.addInvitations(1L, 1, 0, 0);
+        meetupStatsRepository.addEnrollments(1L, 1, 0);
+        meetupStatsRepository.removeAllByMeetupIds(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void meetupArchiveRepositoryQueries_shouldUseIndexes() throws SQLException {
+        meetupArchiveRepository.findAllWithOwnerByOwnerIdAndDayBetween(1L, LocalDate.now().minusDays(30), LocalDate.now());
+        meetupArchiveRepository.findAllUserDtosByEnrolledUserIdAndDayBetween(1L, LocalDate.now().minusDays(30), LocalDate.now());
+        meetupArchiveRepository.findAllStatsDtosByOwnerIdAndDayBetween(1L, LocalDate.now().minusDays(30), LocalDate.now());
+        meetupArchiveRepository.copyMeetups(Arrays.asList(1L, 2L), LocalDateTime.now());
+        meetupArchiveRepository.copyEnrollments(Arrays.asList(1L, 2L));
+        meetupArchiveRepository.copyInvitations(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void syncDeletionRepositoryQueries_shouldUseIndexes() throws SQLException {
+        syncDeletionRepository.findAllByUserIdDeletedSince(1L, LocalDateTime.now().minusDays(1));
+        syncDeletionRepository.addEnrollmentsByMeetupIds(Arrays.asList(1L, 2L), LocalDateTime.now());
+        syncDeletionRepository.addInvitationsByMeetupIds(Arrays.asList(1L, 2L), LocalDateTime.now());
+        syncDeletionRepository.removeAllDeletedBefore(LocalDateTime.now().minusDays(30));
+        assertNoFullScans();
+    }
+
+    @Test
+    public void changeVersionRepositoryQueries_shouldUseIndexes() throws SQLException {
+        changeVersionRepository.bump("user:1");
+        changeVersionRepository.findById("user:1");
+        assertNoFullScans();
+    }
+
+    @Test
+    public void waitlistEntryRepositoryQueries_shouldUseIndexes() throws SQLException {
+        waitlistEntryRepository.findFirstByMeetupId(1L, PageRequest.of(0, 10));
+        waitlistEntryRepository.existsByMeetupIdAndUserId(1L, 1L);
+        waitlistEntryRepository.remove(1L);
+        waitlistEntryRepository.removeAllByMeetupIds(Arrays.asList(1L, 2L));
+        assertNoFullScans();
+    }
+
+    /**
+     * Explains every statement recorded since the last call and asserts none of them reads a whole table.
+     *
+     * @throws SQLException if a statement couldn't be explained.
+     */
+    private void assertNoFullScans() throws SQLException {
+        List<String> statements = SqlStatementRecorder.drain();
+        assertFalse("No statements were recorded", statements.isEmpty());
+
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : statements) {
+                String plan = explain(connection, sql);
+                assertTrue("Full scan in plan:\n" + plan, !FULL_SCAN.matcher(plan).find());
+            }
+        }
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
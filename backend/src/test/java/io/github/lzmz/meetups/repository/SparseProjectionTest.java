@@ -0,0 +1,58 @@
+package io.github.lzmz.meetups.repository;
+
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SparseProjectionTest {
+
+    private final SparseProjection<EnrollmentDto> projection = new SparseProjection<>("EnrollmentModel e", EnrollmentDto::new)
+            .join("m", "join e.meetup m")
+            .join("o", "join m.owner o")
+            .<Long>column("id", "e.id", EnrollmentDto::setId)
+            .<String>column("meetupOwnerName", "o.name", EnrollmentDto::setMeetupOwnerName, "m", "o")
+            .<LocalDate>column("meetupDay", "m.day", EnrollmentDto::setMeetupDay, "m")
+            .<Boolean>column("checkedIn", "e.checkedIn", EnrollmentDto::setCheckedIn);
+
+    @Test
+    public void select_allFields_shouldJoinEverything() {
+        assertEquals("select e.id, o.name, m.day, e.checkedIn from EnrollmentModel e join e.meetup m join m.owner o", projection.select(null));
+    }
+
+    @Test
+    public void select_fieldsWithoutJoins_shouldNotJoin() {
+        assertEquals("select e.id, e.checkedIn from EnrollmentModel e", projection.select(fields("id", "checkedIn")));
+    }
+
+    @Test
+    public void map_singleColumn_shouldSetOnlyThatField() {
+        List<EnrollmentDto> enrollments = projection.map(Collections.singletonList(7L), fields("id"));
+
+        assertEquals(7L, enrollments.get(0).getId());
+        assertNull(enrollments.get(0).getMeetupDay());
+    }
+
+    @Test
+    public void map_someColumns_shouldSetThemInOrder() {
+        LocalDate day = LocalDate.of(2020, 5, 1);
+        List<EnrollmentDto> enrollments = projection.map(Collections.singletonList(new Object[]{7L, day, true}), fields("id", "meetupDay", "checkedIn"));
+
+        assertEquals(day, enrollments.get(0).getMeetupDay());
+        assertTrue(enrollments.get(0).isCheckedIn());
+        assertNull(enrollments.get(0).getMeetupOwnerName());
+    }
+
+    private static Set<String> fields(String... fields) {
+        return new HashSet<>(Arrays.asList(fields));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.lzmz.meetups.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL statements prepared by Hibernate so their execution plans can be inspected.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+
+        return sql;
+    }
+
+    /**
+     * Retrieves and forgets the statements recorded so far.
+     *
+     * @return the recorded statements.
+     */
+    public static List<String> drain() {
+        synchronized (STATEMENTS) {
+            List<String> statements = new ArrayList<>(STATEMENTS);
+            STATEMENTS.clear();
+            return statements;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.lzmz.meetups.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.lzmz.meetups.exceptions.ApiErrorCode;
+import io.jsonwebtoken.ExpiredJwtException;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SecurityResponderTest {
+
+    @Test
+    public void handleJwtException_expiredJwt_shouldSendExpiredBodyWithCurrentTimestamp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        new SecurityResponder(objectMapper).handleJwtException(res, new ExpiredJwtException(null, null, "expired"));
+
+        JsonNode body = objectMapper.readTree(res.getContentAsByteArray());
+        assertEquals(401, res.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, res.getContentType());
+        assertEquals(res.getContentAsByteArray().length, res.getContentLength());
+        assertEquals(ApiErrorCode.JWT_EXPIRED, body.get("code").asInt());
+        assertEquals("Expired JWT", body.get("message").asText());
+        assertEquals("The JWT has expired and a new authentication is required", body.get("errors").get(0).asText());
+        assertRecent(objectMapper.treeToValue(body.get("timestamp"), LocalDateTime.class));
+    }
+
+    @Test
+    public void accessDenied_timestampsAsArrays_shouldSendTimestampAsConfigured() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        new SecurityResponder(objectMapper).accessDenied(res);
+
+        JsonNode body = objectMapper.readTree(res.getContentAsByteArray());
+        assertEquals(403, res.getStatus());
+        assertEquals(ApiErrorCode.ACCESS_DENIED, body.get("code").asInt());
+        assertTrue(body.get("timestamp").isArray());
+        assertRecent(objectMapper.treeToValue(body.get("timestamp"), LocalDateTime.class));
+    }
+
+    private static void assertRecent(LocalDateTime timestamp) {
+        assertTrue(ChronoUnit.SECONDS.between(timestamp, LocalDateTime.now()) < 5);
+    }
+}
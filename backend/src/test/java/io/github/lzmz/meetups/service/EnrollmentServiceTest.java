@@ -0,0 +1,214 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.dto.mapper.EnrollmentMapper;
+import io.github.lzmz.meetups.dto.request.EnrollmentCreationDto;
+import io.github.lzmz.meetups.dto.response.CheckInResultDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.EnrollmentResultDto;
+import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.UserModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
+import io.github.lzmz.meetups.service.checkin.CheckInBuffer;
+import io.github.lzmz.meetups.service.implementation.EnrollmentServiceImpl;
+import io.github.lzmz.meetups.service.reservation.SeatReservations;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class EnrollmentServiceTest {
+
+    private static final long MEETUP_ID = 1;
+    private static final long USER_ID = 2;
+
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private MeetupRepository meetupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private SeatReservations seatReservations;
+
+    @Mock
+    private ObjectProvider<CheckInBuffer> checkInBuffer;
+
+    @Mock
+    private MeetupStats meetupStats;
+
+    @Mock
+    private EnrollmentMapper enrollmentMapper;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EnrollmentCreationDto enrollmentCreationDto;
+
+    @Before
+    public void setUp() {
+        enrollmentService = new EnrollmentServiceImpl(enrollmentRepository, meetupRepository, userRepository, waitlistEntryRepository, seatReservations, checkInBuffer, meetupStats, changeVersions, enrollmentMapper, transactionManager);
+
+        MeetupModel meetup = new MeetupModel();
+        meetup.setId(MEETUP_ID);
+        meetup.setDay(LocalDate.now());
+        UserModel user = new UserModel();
+        user.setId(USER_ID);
+
+        enrollmentCreationDto = new EnrollmentCreationDto();
+        enrollmentCreationDto.setMeetupId(MEETUP_ID);
+        enrollmentCreationDto.setUserId(USER_ID);
+
+        when(enrollmentMapper.enrollmentCreationDtoToEnrollment(enrollmentCreationDto)).thenReturn(new EnrollmentModel());
+        when(meetupRepository.findById(MEETUP_ID)).thenReturn(Optional.of(meetup));
+        when(userRepository.getOne(USER_ID)).thenReturn(user);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+    }
+
+    @Test
+    public void create_seatAvailable_shouldReturnEnrolled() throws Exception {
+        EnrollmentDto enrollmentDto = new EnrollmentDto();
+        when(seatReservations.enroll(any())).thenReturn(true);
+        when(enrollmentMapper.enrollmentToEnrollmentDto(any())).thenReturn(enrollmentDto);
+
+        EnrollmentResultDto result = enrollmentService.create(enrollmentCreationDto);
+
+        assertEquals(EnrollmentResultDto.Status.ENROLLED, result.getStatus());
+        assertSame(enrollmentDto, result.getEnrollment());
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+
+    @Test
+    public void create_fullMeetup_shouldReturnWaitlisted() throws Exception {
+        when(seatReservations.enroll(any())).thenReturn(false);
+
+        EnrollmentResultDto result = enrollmentService.create(enrollmentCreationDto);
+
+        assertEquals(EnrollmentResultDto.Status.WAITLISTED, result.getStatus());
+        assertNull(result.getEnrollment());
+        verify(waitlistEntryRepository).save(any());
+    }
+
+    @Test
+    public void create_missingUser_shouldThrowEntityNotFound() throws Exception {
+        when(seatReservations.enroll(any())).thenThrow(new DataIntegrityViolationException("fk_enrollment_user"));
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        try {
+            enrollmentService.create(enrollmentCreationDto);
+            fail();
+        } catch (EntityNotFoundException e) {
+            assertEquals(USER_ID, e.getId());
+        }
+    }
+
+    @Test(expected = DuplicateEntityException.class)
+    public void create_alreadyEnrolled_shouldThrowDuplicateEntity() throws Exception {
+        when(seatReservations.enroll(any())).thenThrow(new DataIntegrityViolationException("uk_enrollment_meetup_user"));
+        when(enrollmentRepository.existsByMeetupIdAndUserId(MEETUP_ID, USER_ID)).thenReturn(true);
+
+        enrollmentService.create(enrollmentCreationDto);
+    }
+
+    @Test
+    public void create_unknownViolation_shouldRethrowIt() throws Exception {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("unknown");
+        when(seatReservations.enroll(any())).thenThrow(violation);
+
+        try {
+            enrollmentService.create(enrollmentCreationDto);
+            fail();
+        } catch (DataIntegrityViolationException e) {
+            assertSame(violation, e);
+        }
+
+        verifyNoInteractions(meetupStats);
+    }
+
+    @Test
+    public void checkIn_mixedBatch_shouldCheckInEachMeetupOnce() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(enrollmentRepository.findMeetupDaysByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{10L, today, USER_ID, MEETUP_ID},
+                new Object[]{11L, today.minusDays(1), USER_ID, 3L},
+                new Object[]{12L, today, 4L, MEETUP_ID},
+                new Object[]{13L, today.plusDays(1), USER_ID, 5L}));
+
+        List<CheckInResultDto> results = enrollmentService.checkIn(Arrays.asList(10L, 11L, null, 12L, 10L, 13L, 14L));
+
+        assertEquals(Arrays.asList(10L, 11L, 12L, 13L, 14L), results.stream().map(CheckInResultDto::getEnrollmentId).collect(Collectors.toList()));
+        assertEquals(Arrays.asList(CheckInResultDto.Outcome.OK, CheckInResultDto.Outcome.OK, CheckInResultDto.Outcome.OK,
+                CheckInResultDto.Outcome.TOO_EARLY, CheckInResultDto.Outcome.NOT_FOUND),
+                results.stream().map(CheckInResultDto::getOutcome).collect(Collectors.toList()));
+        verify(meetupStats).checkIn(eq(MEETUP_ID), eq(Arrays.asList(10L, 12L)), any());
+        verify(meetupStats).checkIn(eq(3L), eq(Collections.singletonList(11L)), any());
+        verify(meetupStats, times(2)).checkIn(any(Long.class), anyCollection(), any());
+    }
+
+    @Test
+    public void checkIn_onlyNulls_shouldNotReachTheDatabase() throws Exception {
+        assertEquals(0, enrollmentService.checkIn(Arrays.asList(null, null)).size());
+
+        verifyNoInteractions(enrollmentRepository, meetupStats);
+    }
+
+    @Test
+    public void checkIn_overLimit_shouldThrowValueNotAllowed() {
+        List<Long> enrollmentIds = new ArrayList<>();
+
+        for (long id = 0; id <= EnrollmentService.MAX_BULK_CHECK_IN; id++) {
+            enrollmentIds.add(id);
+        }
+
+        try {
+            enrollmentService.checkIn(enrollmentIds);
+            fail();
+        } catch (ValueNotAllowedException e) {
+            verifyNoInteractions(enrollmentRepository, meetupStats);
+        }
+    }
+}
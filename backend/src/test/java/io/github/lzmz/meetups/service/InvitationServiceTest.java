@@ -0,0 +1,128 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.dto.mapper.InvitationMapper;
+import io.github.lzmz.meetups.dto.request.InvitationCreationDto;
+import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
+import io.github.lzmz.meetups.exceptions.EntityNotFoundException;
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.service.implementation.InvitationServiceImpl;
+import io.github.lzmz.meetups.service.inbox.InvitationInbox;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class InvitationServiceTest {
+
+    private static final long MEETUP_ID = 1;
+    private static final long USER_ID = 2;
+
+    private InvitationService invitationService;
+
+    @Mock
+    private InvitationRepository invitationRepository;
+
+    @Mock
+    private MeetupRepository meetupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EnrollmentService enrollmentService;
+
+    @Mock
+    private InvitationInbox invitationInbox;
+
+    @Mock
+    private MeetupStats meetupStats;
+
+    @Mock
+    private InvitationMapper invitationMapper;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InvitationCreationDto invitationCreationDto;
+
+    @Before
+    public void setUp() {
+        invitationService = new InvitationServiceImpl(invitationRepository, meetupRepository, userRepository, enrollmentService, invitationInbox, meetupStats, changeVersions, invitationMapper, transactionManager);
+
+        invitationCreationDto = new InvitationCreationDto();
+        invitationCreationDto.setMeetupId(MEETUP_ID);
+        invitationCreationDto.setUserId(USER_ID);
+
+        when(invitationMapper.invitationCreationDtoToInvitation(invitationCreationDto)).thenReturn(new InvitationModel());
+        when(meetupRepository.existsById(MEETUP_ID)).thenReturn(true);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+    }
+
+    @Test
+    public void create_missingMeetup_shouldThrowEntityNotFound() throws Exception {
+        when(invitationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk_invitation_meetup"));
+        when(meetupRepository.existsById(MEETUP_ID)).thenReturn(false);
+
+        try {
+            invitationService.create(invitationCreationDto);
+            fail();
+        } catch (EntityNotFoundException e) {
+            assertEquals(MEETUP_ID, e.getId());
+        }
+    }
+
+    @Test
+    public void create_missingUser_shouldThrowEntityNotFound() throws Exception {
+        when(invitationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("fk_invitation_user"));
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        try {
+            invitationService.create(invitationCreationDto);
+            fail();
+        } catch (EntityNotFoundException e) {
+            assertEquals(USER_ID, e.getId());
+        }
+    }
+
+    @Test(expected = DuplicateEntityException.class)
+    public void create_alreadyInvited_shouldThrowDuplicateEntity() throws Exception {
+        when(invitationRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_invitation_meetup_user"));
+        when(invitationRepository.existsByMeetupIdAndUserId(MEETUP_ID, USER_ID)).thenReturn(true);
+
+        invitationService.create(invitationCreationDto);
+    }
+
+    @Test
+    public void create_unknownViolation_shouldRethrowIt() throws Exception {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("unknown");
+        when(invitationRepository.saveAndFlush(any())).thenThrow(violation);
+
+        try {
+            invitationService.create(invitationCreationDto);
+            fail();
+        } catch (DataIntegrityViolationException e) {
+            assertSame(violation, e);
+        }
+
+        verifyNoInteractions(meetupStats, invitationInbox);
+    }
+}
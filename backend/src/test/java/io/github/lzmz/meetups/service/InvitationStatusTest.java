@@ -0,0 +1,179 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.dto.mapper.InvitationMapperImpl;
+import io.github.lzmz.meetups.dto.request.InvitationCreationDto;
+import io.github.lzmz.meetups.dto.request.InvitationStatusDto;
+import io.github.lzmz.meetups.exceptions.DuplicateEntityException;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.service.attendance.AttendanceStreams;
+import io.github.lzmz.meetups.service.implementation.InvitationServiceImpl;
+import io.github.lzmz.meetups.service.inbox.InvitationInbox;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:invitation-status;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InvitationStatusTest {
+
+    private static final long OWNER_ID = 1;
+    private static final long USER_ID = 2;
+    private static final long MEETUP_ID = 1;
+    private static final long INVITATION_ID = 1;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private MeetupStatsRepository meetupStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate anotherRequest;
+    private InvitationRepository invitations;
+    private EnrollmentService enrollmentService;
+    private InvitationService invitationService;
+
+    @Before
+    public void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        anotherRequest = new TransactionTemplate(transactionManager);
+        anotherRequest.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        jdbcTemplate.update("delete from meetup_stats");
+        jdbcTemplate.update("delete from invitation");
+        jdbcTemplate.update("delete from meetup");
+        jdbcTemplate.update("delete from user");
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'owner@meetups.io', 'Owner', '', 0)", OWNER_ID);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'user@meetups.io', 'User', '', 1)", USER_ID);
+        jdbcTemplate.update("insert into meetup (id, created_at, updated_at, day, temperature, owner_id) values (?, now(), now(), ?, 20, ?)", MEETUP_ID, LocalDate.now().plusDays(1), OWNER_ID);
+        jdbcTemplate.update("insert into meetup_stats (meetup_id, invitations_sent, invitations_accepted, invitations_declined, enrolled, checked_in) values (?, 1, 0, 0, 0, 0)", MEETUP_ID);
+        jdbcTemplate.update("insert into invitation (id, status, meetup_id, user_id, updated_at) values (?, 0, ?, ?, now())", INVITATION_ID, MEETUP_ID, USER_ID);
+
+        invitations = mock(InvitationRepository.class, delegatesTo(invitationRepository));
+        enrollmentService = mock(EnrollmentService.class);
+        MeetupStats meetupStats = new MeetupStats(meetupStatsRepository, enrollmentRepository, mock(AttendanceStreams.class));
+        InvitationServiceImpl target = new InvitationServiceImpl(invitations, meetupRepository, userRepository, enrollmentService, mock(InvitationInbox.class), meetupStats, mock(ChangeVersions.class), new InvitationMapperImpl(), transactionManager);
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        invitationService = (InvitationService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void changeStatus_declined_shouldMoveCounter() throws Exception {
+        invitationService.changeStatus(INVITATION_ID, status(InvitationModel.Status.DECLINED));
+
+        assertEquals(InvitationModel.Status.DECLINED.ordinal(), (int) jdbcTemplate.queryForObject("select status from invitation", Integer.class));
+        assertEquals(1, counter("invitations_declined"));
+    }
+
+    @Test
+    public void changeStatus_changedByAnotherRequest_shouldNotMoveCounters() throws Exception {
+        doAnswer(invocation -> {
+            // Another request declines the invitation after this one read it, and commits first.
+            anotherRequest.executeWithoutResult(status -> {
+                jdbcTemplate.update("update invitation set status = 2 where id = ?", INVITATION_ID);
+                jdbcTemplate.update("update meetup_stats set invitations_declined = invitations_declined + 1");
+            });
+            return invitationRepository.changeStatus(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+        }).when(invitations).changeStatus(anyLong(), any(), any(), any());
+
+        try {
+            invitationService.changeStatus(INVITATION_ID, status(InvitationModel.Status.DECLINED));
+            fail();
+        } catch (ValueNotAllowedException e) {
+            assertEquals(1, counter("invitations_declined"));
+            assertEquals(0, counter("invitations_accepted"));
+        }
+    }
+
+    @Test
+    public void changeStatus_enrollmentFailed_shouldRollBackStatusAndCounters() throws Exception {
+        when(enrollmentService.create(any())).thenThrow(new DuplicateEntityException(InvitationModel.class, USER_ID, "user"));
+
+        try {
+            invitationService.changeStatus(INVITATION_ID, status(InvitationModel.Status.ACCEPTED));
+            fail();
+        } catch (DuplicateEntityException e) {
+            assertEquals(InvitationModel.Status.PENDING.ordinal(), (int) jdbcTemplate.queryForObject("select status from invitation", Integer.class));
+            assertEquals(0, counter("invitations_accepted"));
+        }
+    }
+
+    @Test
+    public void create_duplicate_shouldNotCountInvitation() throws Exception {
+        InvitationCreationDto invitationCreationDto = new InvitationCreationDto();
+        invitationCreationDto.setMeetupId(MEETUP_ID);
+        invitationCreationDto.setUserId(USER_ID);
+
+        try {
+            invitationService.create(invitationCreationDto);
+            fail();
+        } catch (DuplicateEntityException e) {
+            assertEquals(1, counter("invitations_sent"));
+        }
+    }
+
+    private int counter(String column) {
+        return jdbcTemplate.queryForObject("select " + column + " from meetup_stats where meetup_id = ?", Integer.class, MEETUP_ID);
+    }
+
+    private static InvitationStatusDto status(InvitationModel.Status status) {
+        InvitationStatusDto invitationStatusDto = new InvitationStatusDto();
+        invitationStatusDto.setStatus(status);
+        return invitationStatusDto;
+    }
+}
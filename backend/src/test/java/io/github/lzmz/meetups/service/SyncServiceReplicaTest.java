@@ -0,0 +1,110 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.config.datasource.ReplicaRoutingDataSource;
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.SyncDto;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.SyncDeletionRepository;
+import io.github.lzmz.meetups.service.implementation.SyncServiceImpl;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import org.flywaydb.core.Flyway;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SyncServiceReplicaTest {
+
+    private static final long OWNER_ID = 1;
+    private static final long USER_ID = 2;
+    private static final long MEETUP_ID = 1;
+
+    private static final DataSource PRIMARY = database("sync-primary");
+    private static final DataSource REPLICA = database("sync-replica");
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    @Autowired
+    private SyncDeletionRepository syncDeletionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SyncService syncService;
+
+    @Before
+    public void setUp() {
+        SyncServiceImpl target = new SyncServiceImpl(enrollmentRepository, invitationRepository, meetupRepository, syncDeletionRepository, new SyncDeletions(syncDeletionRepository, new ApiProperties()));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new AnnotationTransactionAttributeSource()));
+        syncService = (SyncService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void sync_replicaLaggingBehindTheOverlap_shouldSendTheRowsOfThePrimary() {
+        // Only written to the primary so far, and older than the overlap of the watermark.
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(PRIMARY);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'owner@meetups.io', 'Owner', '', 0)", OWNER_ID);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'user@meetups.io', 'User', '', 1)", USER_ID);
+        jdbcTemplate.update("insert into meetup (id, created_at, updated_at, day, temperature, owner_id) values (?, now(), now(), ?, 20, ?)", MEETUP_ID, LocalDate.now().plusDays(1), OWNER_ID);
+        jdbcTemplate.update("insert into enrollment (id, checked_in, meetup_id, user_id, updated_at) values (1, false, ?, ?, ?)", MEETUP_ID, USER_ID, LocalDateTime.now().minusMinutes(1));
+
+        SyncDto sync = syncService.sync(USER_ID, LocalDateTime.now().minusMinutes(2));
+
+        assertEquals(Collections.singletonList(1L), sync.getEnrollments().stream().map(EnrollmentDto::getId).collect(Collectors.toList()));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        return dataSource;
+    }
+
+    @TestConfiguration
+    static class ReplicaConfiguration {
+
+        @Bean
+        public DataSource dataSource() {
+            return new ReplicaRoutingDataSource(PRIMARY, REPLICA, Duration.ZERO);
+        }
+    }
+}
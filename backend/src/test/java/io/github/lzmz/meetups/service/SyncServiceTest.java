@@ -0,0 +1,156 @@
+package io.github.lzmz.meetups.service;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.SyncDto;
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.SyncDeletionModel;
+import io.github.lzmz.meetups.model.UserModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.SyncDeletionRepository;
+import io.github.lzmz.meetups.service.implementation.SyncServiceImpl;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class SyncServiceTest {
+
+    private static final long OWNER_ID = 1;
+    private static final long USER_ID = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    @Autowired
+    private SyncDeletionRepository syncDeletionRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private SyncDeletions syncDeletions;
+    private SyncService syncService;
+
+    @Before
+    public void setUp() {
+        ApiProperties apiProperties = new ApiProperties();
+        syncDeletions = new SyncDeletions(syncDeletionRepository, apiProperties);
+        syncService = new SyncServiceImpl(enrollmentRepository, invitationRepository, meetupRepository, syncDeletionRepository, syncDeletions);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'owner@meetups.io', 'Owner', '', 0)", OWNER_ID);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'user@meetups.io', 'User', '', 1)", USER_ID);
+
+        for (long id = 1; id <= 2; id++) {
+            jdbcTemplate.update("insert into meetup (id, created_at, updated_at, day, temperature, owner_id) values (?, ?, ?, ?, 20, ?)",
+                    id, LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1), LocalDate.now().plusDays(id), OWNER_ID);
+        }
+    }
+
+    @Test
+    public void sync_rowCommittedAfterThePreviousSync_shouldBeSentThanksToTheOverlap() {
+        SyncDto first = syncService.sync(USER_ID, null);
+        LocalDateTime watermark = first.getWatermark();
+
+        assertTrue(first.isReset());
+
+        // Written by transactions that were still running during the first sync, so they weren't sent by it.
+        insertEnrollment(1, 1, watermark.plus(SyncService.WATERMARK_OVERLAP).minusSeconds(1));
+        insertEnrollment(2, 2, watermark.minusSeconds(1));
+
+        SyncDto next = syncService.sync(USER_ID, watermark);
+
+        assertFalse(next.isReset());
+        assertEquals(Collections.singletonList(1L), next.getEnrollments().stream().map(EnrollmentDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void sync_deletionsSinceWatermark_shouldBeReported() {
+        LocalDateTime watermark = LocalDateTime.now().minusMinutes(1);
+        insertEnrollment(1, 1, watermark.minusDays(1));
+        jdbcTemplate.update("insert into invitation (id, status, meetup_id, user_id) values (3, 0, 2, ?)", USER_ID);
+
+        syncDeletions.enrollmentRemoved(enrollment(1, 1));
+        syncDeletions.meetupsRemoved(Collections.singletonList(2L));
+        syncDeletionRepository.save(new SyncDeletionModel(USER_ID, SyncDeletionModel.Type.ENROLLMENT, 4L, 2L, watermark.minusSeconds(1)));
+
+        SyncDto sync = syncService.sync(USER_ID, watermark);
+
+        assertFalse(sync.isReset());
+        assertEquals(Collections.singletonList(1L), sync.getDeletedEnrollments());
+        assertEquals(Collections.singletonList(1L), sync.getUnenrolledMeetups());
+        assertEquals(Collections.singletonList(3L), sync.getDeletedInvitations());
+    }
+
+    @Test
+    public void sync_watermarkOlderThanRetention_shouldReset() {
+        insertEnrollment(1, 1, LocalDateTime.now().minusDays(60));
+        syncDeletions.enrollmentRemoved(enrollment(2, 2));
+
+        SyncDto sync = syncService.sync(USER_ID, LocalDateTime.now().minusDays(31));
+
+        assertTrue(sync.isReset());
+        assertEquals(1, sync.getEnrollments().size());
+        assertTrue(sync.getDeletedEnrollments().isEmpty());
+    }
+
+    @Test
+    public void purge_shouldOnlyRemoveTheDeletionsPastTheRetention() {
+        syncDeletionRepository.saveAll(Arrays.asList(
+                new SyncDeletionModel(USER_ID, SyncDeletionModel.Type.ENROLLMENT, 1L, 1L, LocalDateTime.now().minusDays(31)),
+                new SyncDeletionModel(USER_ID, SyncDeletionModel.Type.ENROLLMENT, 2L, 1L, LocalDateTime.now().minusDays(29))));
+
+        syncDeletions.purge();
+
+        assertEquals(Collections.singletonList(2L), syncDeletionRepository.findAll().stream().map(SyncDeletionModel::getEntityId).collect(Collectors.toList()));
+    }
+
+    private void insertEnrollment(long id, long meetupId, LocalDateTime updatedAt) {
+        jdbcTemplate.update("insert into enrollment (id, checked_in, meetup_id, user_id, updated_at) values (?, false, ?, ?, ?)", id, meetupId, USER_ID, updatedAt);
+    }
+
+    private static EnrollmentModel enrollment(long id, long meetupId) {
+        UserModel user = new UserModel();
+        user.setId(USER_ID);
+        MeetupModel meetup = new MeetupModel();
+        meetup.setId(meetupId);
+        EnrollmentModel enrollment = new EnrollmentModel();
+        enrollment.setId(id);
+        enrollment.setUser(user);
+        enrollment.setMeetup(meetup);
+        return enrollment;
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.lzmz.meetups.service.archive;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.dto.response.EnrollmentDto;
+import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.dto.response.MeetupStatsDto;
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.repository.ChangeVersionRepository;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import io.github.lzmz.meetups.repository.MeetupArchiveRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.repository.SyncDeletionRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MeetupArchiveTest {
+
+    private static final long OWNER_ID = 1;
+    private static final long USER_ID = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeetupRepository meetupRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private InvitationRepository invitationRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private MeetupSeatsRepository meetupSeatsRepository;
+
+    @Autowired
+    private MeetupStatsRepository meetupStatsRepository;
+
+    @Autowired
+    private MeetupArchiveRepository meetupArchiveRepository;
+
+    @Autowired
+    private SyncDeletionRepository syncDeletionRepository;
+
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private ChangeVersions changeVersions;
+    private MeetupArchive meetupArchive;
+
+    @Before
+    public void setUp() {
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getArchive().setHorizon(Duration.ofDays(30));
+        apiProperties.getArchive().setBatchSize(2);
+        changeVersions = new ChangeVersions(changeVersionRepository);
+        meetupArchive = new MeetupArchive(meetupRepository, enrollmentRepository, invitationRepository, waitlistEntryRepository, meetupSeatsRepository, meetupStatsRepository, meetupArchiveRepository, new SyncDeletions(syncDeletionRepository, apiProperties), changeVersions, apiProperties, transactionManager);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        for (String table : new String[]{"sync_deletion", "enrollment_archive", "invitation_archive", "meetup_archive", "enrollment", "invitation", "meetup_seats", "meetup_stats", "meetup", "user"}) {
+            jdbcTemplate.update("delete from " + table);
+        }
+
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'owner@meetups.io', 'Owner', '', 0)", OWNER_ID);
+        jdbcTemplate.update("insert into user (id, created_at, email, name, password, role) values (?, now(), 'user@meetups.io', 'User', '', 1)", USER_ID);
+    }
+
+    @Test
+    public void archive_meetupsBeforeHorizon_shouldBeMovedWithTheirInvitationsAndEnrollments() {
+        LocalDate horizon = meetupArchive.getHorizon();
+
+        for (int id = 1; id <= 4; id++) {
+            insertMeetup(id, horizon.minusDays(id));
+        }
+
+        insertMeetup(5, horizon);
+        String userTag = changeVersions.userTag(USER_ID);
+
+        meetupArchive.archive();
+
+        assertEquals(1, count("meetup"));
+        assertEquals(1, count("enrollment"));
+        assertEquals(1, count("invitation"));
+        assertEquals(1, count("meetup_stats"));
+        assertEquals(0, count("meetup_seats where meetup_id <> 5"));
+        assertEquals(4, count("meetup_archive"));
+        assertEquals(4, count("enrollment_archive"));
+        assertEquals(4, count("invitation_archive"));
+        assertEquals(4, count("sync_deletion where type = 0"));
+        assertEquals(4, count("sync_deletion where type = 1"));
+        assertNotEquals(userTag, changeVersions.userTag(USER_ID));
+
+        List<MeetupStatsDto> stats = meetupArchiveRepository.findAllStatsDtosByOwnerIdAndDayBetween(OWNER_ID, horizon.minusDays(4), horizon.minusDays(3));
+        assertEquals(2, stats.size());
+        assertEquals(horizon.minusDays(4), stats.get(0).getDay());
+        assertEquals(1, stats.get(0).getCheckedIn());
+    }
+
+    @Test
+    public void archive_archivedInvitationsAndEnrollments_shouldBeListedOnlyWhenAsked() {
+        LocalDate horizon = meetupArchive.getHorizon();
+
+        for (int id = 1; id <= 3; id++) {
+            insertMeetup(id, horizon.plusDays(1 - id));
+        }
+
+        meetupArchive.archive();
+
+        assertEquals(Collections.singletonList(1L), ids(invitationRepository.findPage(null, USER_ID, null, null, 2, false, null), InvitationDto::getId));
+        assertEquals(Arrays.asList(1L, 2L), ids(invitationRepository.findPage(null, USER_ID, null, null, 2, true, null), InvitationDto::getId));
+        assertEquals(Collections.singletonList(3L), ids(invitationRepository.findPage(null, USER_ID, null, 2L, 2, true, null), InvitationDto::getId));
+        assertEquals(3, invitationRepository.countFiltered(null, USER_ID, InvitationModel.Status.ACCEPTED, true));
+
+        assertEquals(1, enrollmentRepository.findAllByUserId(USER_ID, false, null).size());
+        List<EnrollmentDto> enrollments = enrollmentRepository.findAllByUserId(USER_ID, true, null);
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(enrollments, EnrollmentDto::getId));
+        EnrollmentDto archived = enrollments.stream().filter(enrollment -> enrollment.getMeetupId() == 3).findFirst().orElseThrow(AssertionError::new);
+        assertEquals(horizon.minusDays(2), archived.getMeetupDay());
+        assertEquals("Owner", archived.getMeetupOwnerName());
+    }
+
+    private void insertMeetup(long id, LocalDate day) {
+        jdbcTemplate.update("insert into meetup (id, created_at, day, temperature, owner_id, capacity) values (?, now(), ?, 20, ?, 10)", id, day, OWNER_ID);
+        jdbcTemplate.update("insert into meetup_seats (meetup_id, enrolled) values (?, 1)", id);
+        jdbcTemplate.update("insert into meetup_stats values (?, 1, 1, 0, 1, 1)", id);
+        jdbcTemplate.update("insert into invitation (id, status, meetup_id, user_id) values (?, 1, ?, ?)", id, id, USER_ID);
+        jdbcTemplate.update("insert into enrollment (id, checked_in, meetup_id, user_id) values (?, true, ?, ?)", id, id, USER_ID);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    private static <T> List<Long> ids(List<T> dtos, Function<T, Long> id) {
+        return dtos.stream().map(id).sorted().collect(Collectors.toList());
+    }
+}
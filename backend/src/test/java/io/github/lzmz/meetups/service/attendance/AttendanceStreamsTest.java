@@ -0,0 +1,180 @@
+package io.github.lzmz.meetups.service.attendance;
+
+import io.github.lzmz.meetups.dto.response.AttendanceDto;
+import io.github.lzmz.meetups.exceptions.CustomRestExceptionHandler;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.MeetupStatsModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupRepository;
+import io.github.lzmz.meetups.repository.MeetupStatsRepository;
+import io.github.lzmz.meetups.service.MeetupService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class AttendanceStreamsTest {
+
+    private static final long MEETUP_ID = 1;
+
+    @Mock
+    private MeetupRepository meetupRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private MeetupStatsRepository meetupStatsRepository;
+
+    @Mock
+    private MeetupService meetupService;
+
+    private AttendanceStreams attendanceStreams;
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private long enrolled;
+
+    @Before
+    public void setUp() {
+        MeetupModel meetup = new MeetupModel();
+        meetup.setId(MEETUP_ID);
+        meetup.setTemperature(20.0);
+
+        when(meetupRepository.findById(MEETUP_ID)).thenReturn(Optional.of(meetup));
+        when(enrollmentRepository.findAttendanceByMeetupId(MEETUP_ID)).thenAnswer(invocation -> new AttendanceDto(enrolled, 0));
+
+        attendanceStreams = new AttendanceStreams(meetupRepository, enrollmentRepository, meetupStatsRepository, meetupService) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @Test
+    public void subscribe_overLimit_shouldAnswerServiceUnavailable() throws Exception {
+        subscribeAll();
+
+        try {
+            attendanceStreams.subscribe(MEETUP_ID);
+            fail();
+        } catch (LimitExceededException e) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, new CustomRestExceptionHandler().handleLimitExceeded(e).getStatusCode());
+        }
+    }
+
+    @Test
+    public void subscribe_afterCompletion_shouldReuseTheReleasedSubscription() throws Exception {
+        subscribeAll();
+
+        emitters.get(0).complete();
+
+        attendanceStreams.subscribe(MEETUP_ID);
+    }
+
+    @Test
+    public void heartbeat_droppedConnection_shouldReleaseItsSubscription() throws Exception {
+        subscribeAll();
+        emitters.get(0).dropped = true;
+
+        attendanceStreams.heartbeat();
+
+        assertEquals(2, emitters.get(1).sent);
+        attendanceStreams.subscribe(MEETUP_ID);
+    }
+
+    @Test
+    public void publish_withoutChanges_shouldNotQueryTheDatabase() throws Exception {
+        attendanceStreams.subscribe(MEETUP_ID);
+
+        attendanceStreams.publish();
+        attendanceStreams.publish();
+
+        verify(enrollmentRepository, times(1)).findAttendanceByMeetupId(MEETUP_ID);
+        assertEquals(1, emitters.get(0).sent);
+    }
+
+    @Test
+    public void publish_afterLocalChange_shouldSendTheNewAttendance() throws Exception {
+        attendanceStreams.subscribe(MEETUP_ID);
+
+        enrolled = 1;
+        attendanceStreams.attendanceChanged(MEETUP_ID);
+        attendanceStreams.publish();
+
+        assertEquals(2, emitters.get(0).sent);
+    }
+
+    @Test
+    public void sync_changeThroughOtherInstance_shouldSendTheNewAttendance() throws Exception {
+        MeetupStatsModel stats = new MeetupStatsModel(MEETUP_ID);
+        when(meetupStatsRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(stats));
+        attendanceStreams.subscribe(MEETUP_ID);
+
+        attendanceStreams.sync();
+        attendanceStreams.publish();
+
+        assertEquals(1, emitters.get(0).sent);
+
+        enrolled = 1;
+        stats.setEnrolled(1);
+        attendanceStreams.sync();
+        attendanceStreams.publish();
+
+        assertEquals(2, emitters.get(0).sent);
+    }
+
+    private void subscribeAll() throws Exception {
+        for (int i = 0; i < AttendanceStreams.MAX_SUBSCRIBERS; i++) {
+            attendanceStreams.subscribe(MEETUP_ID);
+        }
+    }
+
+    /**
+     * Emitter that counts its events, and runs its callbacks as the servlet container would.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private Runnable completionCallback;
+        private boolean dropped;
+        private int sent;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (dropped) {
+                throw new IOException("Broken pipe");
+            }
+
+            sent++;
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completionCallback = callback;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completionCallback.run();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.lzmz.meetups.service.checkin;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class CheckInBufferTest {
+
+    private static final long MEETUP_ID = 1;
+    private static final long USER_ID = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private MeetupStats meetupStats;
+
+    @Mock
+    private ChangeVersions changeVersions;
+
+    private ApiProperties apiProperties;
+    private Path logFile;
+    private MeetupModel meetup;
+
+    @Before
+    public void setUp() {
+        logFile = folder.getRoot().toPath().resolve("check-in.log");
+        apiProperties = new ApiProperties();
+        apiProperties.getCheckIn().setLogFile(logFile.toString());
+
+        meetup = new MeetupModel();
+        meetup.setId(MEETUP_ID);
+        meetup.setDay(LocalDate.now());
+
+        when(enrollmentRepository.findMeetupByEnrollmentId(anyLong())).thenReturn(Optional.of(meetup));
+        when(enrollmentRepository.findAllIdsByMeetupId(MEETUP_ID)).thenReturn(Arrays.asList(1L, 2L, 3L));
+        when(enrollmentRepository.findMeetupDaysByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new Object[]{id, meetup.getDay(), USER_ID, MEETUP_ID}).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    public void checkIn_crashBeforeFlush_shouldBeAppliedOnceByTheNextInstance() throws Exception {
+        CheckInBuffer crashed = newBuffer();
+        crashed.checkIn(1);
+        crashed.checkIn(2);
+        crashed.checkIn(1);
+
+        assertEquals(Arrays.asList("1", "2"), Files.readAllLines(logFile));
+
+        CheckInBuffer restarted = newBuffer();
+        restarted.flush();
+        restarted.flush();
+        newBuffer().flush();
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 2L)), checkedIn());
+    }
+
+    @Test
+    public void replay_tornLastLine_shouldBeDropped() throws Exception {
+        Files.write(logFile, "1\n12".getBytes(StandardCharsets.US_ASCII));
+
+        CheckInBuffer restarted = newBuffer();
+        restarted.checkIn(3);
+        restarted.flush();
+
+        assertEquals(new HashSet<>(Arrays.asList(1L, 3L)), checkedIn());
+    }
+
+    @Test
+    public void flush_shouldCompactTheLogAndKeepAppendingToIt() throws Exception {
+        CheckInBuffer buffer = newBuffer();
+        buffer.checkIn(1);
+        buffer.checkIn(2);
+
+        buffer.flush();
+
+        assertEquals(0, Files.size(logFile));
+        assertFalse(Files.exists(logFile.resolveSibling("check-in.log.tmp")));
+
+        buffer.checkIn(3);
+
+        assertEquals(Arrays.asList("3"), Files.readAllLines(logFile));
+    }
+
+    @Test
+    public void flush_manyCheckIns_shouldWriteThemInBatchesOf500() throws Exception {
+        List<Long> enrollmentIds = new ArrayList<>();
+        StringBuilder content = new StringBuilder();
+
+        for (long id = 1; id <= 1200; id++) {
+            enrollmentIds.add(id);
+            content.append(id).append('\n');
+        }
+
+        Files.write(logFile, content.toString().getBytes(StandardCharsets.US_ASCII));
+        newBuffer().flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(enrollmentRepository, times(3)).findMeetupDaysByIds(batches.capture());
+        assertEquals(Arrays.asList(500, 500, 200), batches.getAllValues().stream().map(Collection::size).collect(Collectors.toList()));
+        assertEquals(new HashSet<>(enrollmentIds), batches.getAllValues().stream().flatMap(Collection::stream).collect(Collectors.toSet()));
+        verify(meetupStats, times(3)).checkIn(eq(MEETUP_ID), anyCollection(), any());
+    }
+
+    @Test
+    public void evictView_shouldReloadTheMeetupDays() throws Exception {
+        CheckInBuffer buffer = newBuffer();
+        buffer.checkIn(1);
+        buffer.checkIn(2);
+
+        verify(enrollmentRepository, times(1)).findMeetupByEnrollmentId(anyLong());
+
+        // The meetup was moved to a later day after the view was loaded.
+        meetup.setDay(LocalDate.now().plusDays(1));
+        buffer.evictView();
+
+        try {
+            buffer.checkIn(3);
+        } catch (ValueNotAllowedException e) {
+            verify(enrollmentRepository, times(2)).findMeetupByEnrollmentId(anyLong());
+            verify(meetupStats, never()).checkIn(anyLong(), anyCollection(), any());
+            return;
+        }
+
+        throw new AssertionError("The check-in before the meetup should be rejected");
+    }
+
+    /**
+     * Retrieves the enrollment ids written to the database by the only flushed batch.
+     */
+    private Set<Long> checkedIn() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> enrollmentIds = ArgumentCaptor.forClass(Collection.class);
+        verify(meetupStats, times(1)).checkIn(eq(MEETUP_ID), enrollmentIds.capture(), any());
+        return new HashSet<>(enrollmentIds.getValue());
+    }
+
+    private CheckInBuffer newBuffer() throws IOException {
+        return new CheckInBuffer(enrollmentRepository, meetupStats, changeVersions, apiProperties);
+    }
+}
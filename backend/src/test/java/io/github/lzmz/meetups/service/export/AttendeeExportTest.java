@@ -0,0 +1,48 @@
+package io.github.lzmz.meetups.service.export;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AttendeeExportTest {
+
+    @Test
+    public void csvField_plainValue_shouldBeKept() {
+        assertEquals("Ada Lovelace", AttendeeExport.csvField("Ada Lovelace"));
+        assertEquals("ada@meetups.io", AttendeeExport.csvField("ada@meetups.io"));
+    }
+
+    @Test
+    public void csvField_emptyValue_shouldBeEmpty() {
+        assertEquals("", AttendeeExport.csvField(null));
+        assertEquals("", AttendeeExport.csvField(""));
+    }
+
+    @Test
+    public void csvField_separatorsAndQuotes_shouldBeQuoted() {
+        assertEquals("\"Lovelace, Ada\"", AttendeeExport.csvField("Lovelace, Ada"));
+        assertEquals("\"Ada \"\"Countess\"\" Lovelace\"", AttendeeExport.csvField("Ada \"Countess\" Lovelace"));
+        assertEquals("\"Ada\nLovelace\"", AttendeeExport.csvField("Ada\nLovelace"));
+        assertEquals("\"Ada\r\nLovelace\"", AttendeeExport.csvField("Ada\r\nLovelace"));
+    }
+
+    @Test
+    public void csvField_formula_shouldBeNeutralized() {
+        assertEquals("'=1+1", AttendeeExport.csvField("=1+1"));
+        assertEquals("'+1", AttendeeExport.csvField("+1"));
+        assertEquals("'-1", AttendeeExport.csvField("-1"));
+        assertEquals("'@SUM(A1)", AttendeeExport.csvField("@SUM(A1)"));
+        assertEquals("'\t=1+1", AttendeeExport.csvField("\t=1+1"));
+        assertEquals("\"'\r=1+1\"", AttendeeExport.csvField("\r=1+1"));
+    }
+
+    @Test
+    public void csvField_quotedFormula_shouldBeNeutralizedAndQuoted() {
+        assertEquals("\"'=HYPERLINK(\"\"http://evil.io\"\", \"\"x\"\")\"", AttendeeExport.csvField("=HYPERLINK(\"http://evil.io\", \"x\")"));
+    }
+
+    @Test
+    public void csvField_formulaPrefixInside_shouldBeKept() {
+        assertEquals("ada+meetups@meetups.io", AttendeeExport.csvField("ada+meetups@meetups.io"));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.lzmz.meetups.service.inbox;
+
+import io.github.lzmz.meetups.dto.response.InvitationDto;
+import io.github.lzmz.meetups.exceptions.LimitExceededException;
+import io.github.lzmz.meetups.model.InvitationModel;
+import io.github.lzmz.meetups.repository.InvitationRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InvitationInboxTest {
+
+    private InvitationRepository invitationRepository;
+    private InvitationInbox invitationInbox;
+
+    @Before
+    public void setUp() {
+        invitationRepository = mock(InvitationRepository.class);
+        invitationInbox = new InvitationInbox(invitationRepository);
+        when(invitationRepository.findPage(isNull(), anyLong(), isNull(), anyLong(), anyInt(), eq(false), isNull())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    public void waitForInvitations_missedInvitations_shouldReturnThemRightAway() throws LimitExceededException {
+        when(invitationRepository.findPage(isNull(), anyLong(), isNull(), any(), anyInt(), eq(false), isNull())).thenReturn(Collections.singletonList(invitation(6, 1)));
+        DeferredResult<List<InvitationDto>> result = invitationInbox.waitForInvitations(1, 5);
+        assertTrue(result.hasResult());
+    }
+
+    @Test
+    public void publish_invitationOfWaitingUser_shouldCompleteWait() throws LimitExceededException {
+        DeferredResult<List<InvitationDto>> result = invitationInbox.waitForInvitations(1, 5);
+        assertFalse(result.hasResult());
+
+        invitationInbox.publish(invitation(6, 1));
+        assertTrue(result.hasResult());
+        @SuppressWarnings("unchecked")
+        List<InvitationDto> invitations = (List<InvitationDto>) result.getResult();
+        assertEquals(1, invitations.size());
+        assertEquals(6, invitations.get(0).getId());
+    }
+
+    @Test
+    public void publish_invitationOfOtherUser_shouldNotCompleteWait() throws LimitExceededException {
+        DeferredResult<List<InvitationDto>> result = invitationInbox.waitForInvitations(1, 5);
+        invitationInbox.publish(invitation(6, 2));
+        assertFalse(result.hasResult());
+    }
+
+    @Test
+    public void publish_invitationAlreadySeen_shouldNotCompleteWait() throws LimitExceededException {
+        DeferredResult<List<InvitationDto>> result = invitationInbox.waitForInvitations(1, 5);
+        invitationInbox.publish(invitation(5, 1));
+        assertFalse(result.hasResult());
+    }
+
+    private static InvitationDto invitation(long id, long userId) {
+        InvitationDto invitation = new InvitationDto();
+        invitation.setId(id);
+        invitation.setUserId(userId);
+        invitation.setStatus(InvitationModel.Status.PENDING);
+        return invitation;
+    }
+}
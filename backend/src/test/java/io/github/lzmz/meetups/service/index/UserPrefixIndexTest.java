@@ -0,0 +1,81 @@
+package io.github.lzmz.meetups.service.index;
+
+import io.github.lzmz.meetups.dto.response.UserDto;
+import io.github.lzmz.meetups.repository.UserRepository;
+import io.github.lzmz.meetups.security.Role;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserPrefixIndexTest {
+
+    private UserRepository userRepository;
+    private UserPrefixIndex userPrefixIndex;
+
+    @Before
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        userPrefixIndex = new UserPrefixIndex(userRepository);
+        userPrefixIndex.add(new UserDto(1, "Ada Lovelace", "ada@meetups.io", Role.ADMIN));
+        userPrefixIndex.add(new UserDto(2, "Alan Turing", "alan@meetups.io", Role.USER));
+        userPrefixIndex.add(new UserDto(3, "Grace Hopper", "grace@meetups.io", Role.USER));
+    }
+
+    @Test
+    public void search_namePrefix_shouldReturnMatchingUsers() {
+        List<UserDto> users = userPrefixIndex.search("a", null, 10);
+        assertEquals(2, users.size());
+    }
+
+    @Test
+    public void search_lastNamePrefixInUpperCase_shouldReturnUser() {
+        List<UserDto> users = userPrefixIndex.search("HOP", null, 10);
+        assertEquals(1, users.size());
+        assertEquals(3, users.get(0).getId());
+    }
+
+    @Test
+    public void search_emailAndNameMatchingSameUser_shouldReturnUserOnce() {
+        List<UserDto> users = userPrefixIndex.search("grace", null, 10);
+        assertEquals(1, users.size());
+    }
+
+    @Test
+    public void search_withRole_shouldFilterByRole() {
+        List<UserDto> users = userPrefixIndex.search("a", Role.USER, 10);
+        assertEquals(1, users.size());
+        assertEquals(2, users.get(0).getId());
+    }
+
+    @Test
+    public void search_withLimit_shouldReturnAtMostLimitUsers() {
+        assertEquals(1, userPrefixIndex.search("a", null, 1).size());
+    }
+
+    @Test
+    public void search_blankPrefix_shouldReturnNoUsers() {
+        assertEquals(0, userPrefixIndex.search(" ", null, 10).size());
+    }
+
+    @Test
+    public void refresh_afterLocalSignUp_shouldStillIndexUsersCommittedLaterWithLowerIds() {
+        when(userRepository.findPage(eq(0L), any())).thenReturn(Collections.emptyList());
+        userPrefixIndex.refresh();
+        userPrefixIndex.add(new UserDto(10, "Katherine Johnson", "katherine@meetups.io", Role.USER));
+        when(userRepository.findPageCreatedSince(any(), eq(0L), any())).thenReturn(Collections.singletonList(new UserDto(5, "Edsger Dijkstra", "edsger@meetups.io", Role.USER)));
+
+        userPrefixIndex.refresh();
+
+        assertEquals(1, userPrefixIndex.search("edsger", null, 10).size());
+        verify(userRepository).findPageCreatedSince(any(), eq(0L), any());
+    }
+}
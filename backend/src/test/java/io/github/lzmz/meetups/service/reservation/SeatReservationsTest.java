@@ -0,0 +1,117 @@
+package io.github.lzmz.meetups.service.reservation;
+
+import io.github.lzmz.meetups.model.EnrollmentModel;
+import io.github.lzmz.meetups.model.MeetupModel;
+import io.github.lzmz.meetups.model.UserModel;
+import io.github.lzmz.meetups.model.WaitlistEntryModel;
+import io.github.lzmz.meetups.repository.EnrollmentRepository;
+import io.github.lzmz.meetups.repository.MeetupSeatsRepository;
+import io.github.lzmz.meetups.repository.WaitlistEntryRepository;
+import io.github.lzmz.meetups.service.stats.MeetupStats;
+import io.github.lzmz.meetups.service.sync.SyncDeletions;
+import io.github.lzmz.meetups.service.version.ChangeVersions;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SeatReservationsTest {
+
+    private MeetupSeatsRepository meetupSeatsRepository;
+    private EnrollmentRepository enrollmentRepository;
+    private WaitlistEntryRepository waitlistEntryRepository;
+    private SeatReservations seatReservations;
+    private MeetupModel meetup;
+
+    @Before
+    public void setUp() {
+        meetupSeatsRepository = mock(MeetupSeatsRepository.class);
+        enrollmentRepository = mock(EnrollmentRepository.class);
+        waitlistEntryRepository = mock(WaitlistEntryRepository.class);
+        seatReservations = new SeatReservations(meetupSeatsRepository, enrollmentRepository, waitlistEntryRepository, mock(MeetupStats.class), mock(SyncDeletions.class), mock(ChangeVersions.class));
+
+        meetup = new MeetupModel();
+        meetup.setId(1L);
+        meetup.setCapacity(2);
+        meetup.setOwner(user(100L));
+        when(meetupSeatsRepository.findEnrolledByMeetupId(1L)).thenReturn(Optional.of(0));
+        when(meetupSeatsRepository.reserve(anyLong(), anyInt())).thenReturn(1);
+    }
+
+    @Test
+    public void enroll_meetupWithoutCapacity_shouldNotTakeSeat() {
+        meetup.setCapacity(null);
+        assertTrue(seatReservations.enroll(enrollment(1L)));
+        verify(meetupSeatsRepository, never()).reserve(anyLong(), anyInt());
+    }
+
+    @Test
+    public void enroll_moreUsersThanCapacity_shouldOnlyReachDatabaseForAvailableSeats() {
+        assertTrue(seatReservations.enroll(enrollment(1L)));
+        assertTrue(seatReservations.enroll(enrollment(2L)));
+        assertFalse(seatReservations.enroll(enrollment(3L)));
+        verify(meetupSeatsRepository, times(2)).reserve(1L, 2);
+    }
+
+    @Test
+    public void enroll_meetupFullInDatabase_shouldRejectNextRequestsInMemory() {
+        when(meetupSeatsRepository.reserve(anyLong(), anyInt())).thenReturn(0);
+        assertFalse(seatReservations.enroll(enrollment(1L)));
+        assertFalse(seatReservations.enroll(enrollment(2L)));
+        verify(meetupSeatsRepository, times(1)).reserve(1L, 2);
+    }
+
+    @Test
+    public void cancel_withWaitlist_shouldEnrollFirstWaitingUser() {
+        WaitlistEntryModel entry = new WaitlistEntryModel();
+        entry.setId(5L);
+        entry.setMeetup(meetup);
+        entry.setUser(user(2L));
+        when(enrollmentRepository.remove(10L)).thenReturn(1);
+        when(waitlistEntryRepository.findFirstByMeetupId(anyLong(), any(Pageable.class))).thenReturn(Collections.singletonList(entry));
+        when(waitlistEntryRepository.remove(5L)).thenReturn(1);
+
+        EnrollmentModel enrollment = enrollment(1L);
+        enrollment.setId(10L);
+        assertTrue(seatReservations.cancel(enrollment));
+        verify(enrollmentRepository).save(any(EnrollmentModel.class));
+        verify(meetupSeatsRepository, never()).release(anyLong());
+    }
+
+    @Test
+    public void cancel_withoutWaitlist_shouldGiveSeatBack() {
+        when(enrollmentRepository.remove(10L)).thenReturn(1);
+        when(waitlistEntryRepository.findFirstByMeetupId(anyLong(), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        EnrollmentModel enrollment = enrollment(1L);
+        enrollment.setId(10L);
+        assertTrue(seatReservations.cancel(enrollment));
+        verify(meetupSeatsRepository).release(1L);
+    }
+
+    private EnrollmentModel enrollment(long userId) {
+        EnrollmentModel enrollment = new EnrollmentModel();
+        enrollment.setMeetup(meetup);
+        enrollment.setUser(user(userId));
+        return enrollment;
+    }
+
+    private static UserModel user(long id) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.lzmz.meetups.service.version;
+
+import io.github.lzmz.meetups.repository.ChangeVersionRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-versions;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChangeVersionsTest {
+
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeVersions changeVersions;
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+        changeVersionRepository.deleteAll();
+        changeVersions = new ChangeVersions(changeVersionRepository);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void userChanged_shouldOnlyChangeTagOfThatUser() {
+        String userTag = changeVersions.userTag(1);
+        String otherUserTag = changeVersions.userTag(2);
+        String meetupTag = changeVersions.meetupTag(1);
+
+        changeVersions.userChanged(1);
+
+        assertNotEquals(userTag, changeVersions.userTag(1));
+        assertEquals(otherUserTag, changeVersions.userTag(2));
+        assertEquals(meetupTag, changeVersions.meetupTag(1));
+    }
+
+    @Test
+    public void userChanged_throughOtherInstance_shouldChangeTag() {
+        ChangeVersions otherInstance = new ChangeVersions(changeVersionRepository);
+        String tag = changeVersions.userTag(1);
+
+        otherInstance.userChanged(1);
+
+        assertNotEquals(tag, changeVersions.userTag(1));
+        assertEquals(otherInstance.userTag(1), changeVersions.userTag(1));
+    }
+
+    @Test
+    public void userChanged_insideTransaction_shouldChangeTagOnCommit() {
+        String tag = changeVersions.userTag(1);
+
+        transactionTemplate.execute(status -> {
+            changeVersions.userChanged(1);
+            changeVersions.meetupChanged(1);
+            changeVersions.userChanged(1);
+            assertEquals(tag, changeVersions.userTag(1));
+            return null;
+        });
+
+        assertEquals("W/\"1\"", changeVersions.userTag(1));
+        assertEquals("W/\"1\"", changeVersions.meetupTag(1));
+    }
+
+    @Test
+    public void userChanged_rolledBackTransaction_shouldNotChangeTag() {
+        String tag = changeVersions.userTag(1);
+
+        transactionTemplate.execute(status -> {
+            changeVersions.userChanged(1);
+            status.setRollbackOnly();
+            return null;
+        });
+
+        assertEquals(tag, changeVersions.userTag(1));
+    }
+
+    @Test
+    public void checkNotModified_currentTag_shouldAnswerNotModifiedVaryingByAccept() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, changeVersions.userTag(1));
+
+        assertTrue(ChangeVersions.checkNotModified(new ServletWebRequest(request, response), changeVersions.userTag(1)));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void checkNotModified_staleTag_shouldVaryByAccept() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, changeVersions.userTag(1));
+        changeVersions.userChanged(1);
+
+        assertFalse(ChangeVersions.checkNotModified(new ServletWebRequest(request, response), changeVersions.userTag(1)));
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.lzmz.meetups.service.warmup;
+
+import io.github.lzmz.meetups.config.properties.ApiProperties;
+import io.github.lzmz.meetups.config.properties.JwtProperties;
+import io.github.lzmz.meetups.exceptions.ValueNotAllowedException;
+import io.github.lzmz.meetups.security.JwtUtil;
+import io.github.lzmz.meetups.service.EnrollmentService;
+import io.github.lzmz.meetups.service.InvitationService;
+import io.github.lzmz.meetups.service.MeetupService;
+import io.github.lzmz.meetups.service.UserService;
+import io.github.lzmz.meetups.service.WeatherService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WarmUpTest {
+
+    private WeatherService weatherService;
+    private MeetupService meetupService;
+    private MeterRegistry meterRegistry;
+    private WarmUp warmUp;
+
+    @Before
+    public void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        weatherService = mock(WeatherService.class);
+        meetupService = mock(MeetupService.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("secret");
+        jwtProperties.setDuration(Duration.ofMinutes(1));
+        ApiProperties apiProperties = new ApiProperties();
+        apiProperties.getWarmUp().setIterations(3);
+
+        warmUp = new WarmUp(dataSource, weatherService, mock(UserService.class), meetupService, mock(InvitationService.class), mock(EnrollmentService.class), new JwtUtil(jwtProperties), meterRegistry, apiProperties);
+    }
+
+    @Test
+    public void run_shouldBeOutOfServiceUntilItEnds() throws ValueNotAllowedException {
+        assertEquals(Status.OUT_OF_SERVICE, warmUp.health().getStatus());
+
+        warmUp.run();
+
+        assertEquals(Status.UP, warmUp.health().getStatus());
+        verify(weatherService).getDailyForecast();
+        verify(meetupService, times(3)).getCreatedMeetups(anyLong(), any(), isNull());
+        assertEquals(1, meterRegistry.get(WarmUp.METRIC_NAME).timer().count());
+    }
+
+    @Test
+    public void run_failingStep_shouldStillEndAndReportIt() throws ValueNotAllowedException {
+        when(weatherService.getDailyForecast()).thenThrow(new IllegalStateException());
+
+        warmUp.run();
+
+        Health health = warmUp.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(Collections.singletonList("forecast"), health.getDetails().get("failedSteps"));
+        verify(meetupService, times(3)).getCreatedMeetups(anyLong(), any(), isNull());
+    }
+}
@@ -12,6 +12,7 @@ import { RequestService } from './request.service';
 })
 export class InvitationService {
   private END_POINT_BASE = `${environment.API_URL}/invitations`;
+  private END_POINT_INBOX = `${this.END_POINT_BASE}/inbox`;
 
   private END_POINT_STATUS(invitationId: number): string {
     return `${this.END_POINT_BASE}/${invitationId}/status`;
@@ -20,8 +21,14 @@ export class InvitationService {
   constructor(private http: HttpClient, private requestService: RequestService) {}
 
   findAll(): Observable<IInvitationResponse[]> {
-    const params = this.requestService.getHttpParams({ userId: this.requestService.userId });
-    return this.http.get<IInvitationResponse[]>(this.END_POINT_BASE, { params });
+    return this.requestService.getAllPages<IInvitationResponse>(this.END_POINT_BASE, {
+      userId: this.requestService.userId,
+    });
+  }
+
+  inbox(after: number): Observable<IInvitationResponse[]> {
+    const params = this.requestService.getHttpParams({ userId: this.requestService.userId, after });
+    return this.http.get<IInvitationResponse[]>(this.END_POINT_INBOX, { params });
   }
 
   changeStatus(invitationId: number, status: InvitationStatus): Observable<void> {
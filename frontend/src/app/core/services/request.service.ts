@@ -1,13 +1,25 @@
-import { HttpParams } from '@angular/common/http';
+import { HttpClient, HttpParams, HttpResponse } from '@angular/common/http';
 import { Injectable } from '@angular/core';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, reduce } from 'rxjs/operators';
 
 import { AuthService } from './auth.service';
 
+/**
+ * Response header carrying the cursor of the next page of a keyset-paginated listing.
+ */
+export const NEXT_CURSOR_HEADER = 'X-Next-Cursor';
+
+/**
+ * Largest page size accepted by the keyset-paginated listings.
+ */
+export const MAX_PAGE_SIZE = 500;
+
 @Injectable({
   providedIn: 'root',
 })
 export class RequestService {
-  constructor(private authService: AuthService) {}
+  constructor(private http: HttpClient, private authService: AuthService) {}
 
   get userId(): number {
     return this.authService.currentUserValue.id;
@@ -22,4 +34,25 @@ export class RequestService {
 
     return httpParams;
   }
+
+  /**
+   * Retrieves every page of a keyset-paginated listing, following the cursor of the next page until the last one.
+   */
+  getAllPages<T>(url: string, params: object): Observable<T[]> {
+    const getPage = (cursor?: string): Observable<HttpResponse<T[]>> =>
+      this.http.get<T[]>(url, {
+        params: this.getHttpParams(
+          cursor ? { ...params, size: MAX_PAGE_SIZE, after: cursor } : { ...params, size: MAX_PAGE_SIZE }
+        ),
+        observe: 'response',
+      });
+
+    return getPage().pipe(
+      expand((response: HttpResponse<T[]>) => {
+        const cursor = response.headers.get(NEXT_CURSOR_HEADER);
+        return cursor ? getPage(cursor) : EMPTY;
+      }),
+      reduce((items: T[], response: HttpResponse<T[]>) => items.concat(response.body), [])
+    );
+  }
 }
@@ -30,8 +30,7 @@ export class UserService {
   constructor(private http: HttpClient, private requestService: RequestService) {}
 
   findAll(role: Role): Observable<IUser[]> {
-    const params = this.requestService.getHttpParams({ role });
-    return this.http.get<IUser[]>(this.END_POINT_BASE, { params });
+    return this.requestService.getAllPages<IUser>(this.END_POINT_BASE, { role });
   }
 
   enrollments(): Observable<IEnrollmentResponse> {
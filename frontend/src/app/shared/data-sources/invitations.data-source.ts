@@ -1,10 +1,16 @@
-import { of } from 'rxjs';
-import { catchError, finalize } from 'rxjs/operators';
+import { CollectionViewer } from '@angular/cdk/collections';
+import { EMPTY, of, Subject, timer } from 'rxjs';
+import { catchError, finalize, map, takeUntil } from 'rxjs/operators';
 import { InvitationService } from 'src/app/core/services/invitation.service';
 import { BaseDataSource } from 'src/app/shared/data-sources/base.data-source';
+import { HttpStatusCode } from 'src/app/shared/enums/http-status-code';
 import { IInvitationResponse } from 'src/app/shared/models/invitation';
 
+const INBOX_RETRY_DELAY = 5000;
+
 export class InvitationsDataSource extends BaseDataSource<IInvitationResponse> {
+  private disconnectSubject = new Subject<void>();
+
   load(invitationService: InvitationService): void {
     this.loadingSubject.next(true);
 
@@ -12,10 +18,41 @@ export class InvitationsDataSource extends BaseDataSource<IInvitationResponse> {
       .findAll()
       .pipe(
         catchError(() => of([])),
-        finalize(() => this.loadingSubject.next(false))
+        finalize(() => this.loadingSubject.next(false)),
+        takeUntil(this.disconnectSubject)
       )
       .subscribe((invitations: IInvitationResponse[]) => {
         this.sourceSubject.next(invitations);
+        this.watchInbox(invitationService, invitations.length ? invitations[invitations.length - 1].id : 0);
+      });
+  }
+
+  disconnect(collectionViewer: CollectionViewer): void {
+    this.disconnectSubject.next();
+    this.disconnectSubject.complete();
+
+    super.disconnect(collectionViewer);
+  }
+
+  private watchInbox(invitationService: InvitationService, after: number): void {
+    if (this.disconnectSubject.isStopped) {
+      return;
+    }
+
+    invitationService
+      .inbox(after)
+      .pipe(
+        // The user has to sign in again after an auth error, so the inbox is no longer watched.
+        catchError((err) =>
+          err.status === HttpStatusCode.UNAUTHORIZED || err.status === HttpStatusCode.FORBIDDEN
+            ? EMPTY
+            : timer(INBOX_RETRY_DELAY).pipe(map(() => []))
+        ),
+        takeUntil(this.disconnectSubject)
+      )
+      .subscribe((invitations: IInvitationResponse[]) => {
+        invitations.forEach((invitation) => this.add(invitation));
+        this.watchInbox(invitationService, invitations.length ? invitations[invitations.length - 1].id : after);
       });
   }
 }